@@ -48,6 +48,7 @@ import appeng.menu.implementations.MenuTypeBuilder;
 
 import gripe._90.appliede.block.EMCInterfaceBlock;
 import gripe._90.appliede.block.EMCInterfaceBlockEntity;
+import gripe._90.appliede.block.LargeEMCInterfaceBlockEntity;
 import gripe._90.appliede.integration.DummyIntegrationItem;
 import gripe._90.appliede.integration.ae2wtlib.AE2WTIntegration;
 import gripe._90.appliede.me.key.EMCKey;
@@ -65,6 +66,7 @@ import gripe._90.appliede.part.EMCExportBusPart;
 import gripe._90.appliede.part.EMCImportBusPart;
 import gripe._90.appliede.part.EMCInterfacePart;
 import gripe._90.appliede.part.EMCModulePart;
+import gripe._90.appliede.part.LargeEMCInterfacePart;
 import gripe._90.appliede.part.TransmutationTerminalPart;
 
 // spotless:off
@@ -103,7 +105,22 @@ public final class AppliedE {
         return type;
     });
 
+    public static final Supplier<EMCInterfaceBlock> LARGE_EMC_INTERFACE = BLOCKS.register("large_emc_interface", () -> {
+        var block = new EMCInterfaceBlock();
+        ITEMS.register("large_emc_interface", () -> new BlockItem(block, new Item.Properties()));
+        return block;
+    });
+    public static final Supplier<Item> CABLE_LARGE_EMC_INTERFACE = ITEMS.register("cable_large_emc_interface", () -> part(LargeEMCInterfacePart.class, LargeEMCInterfacePart::new));
+
+    @SuppressWarnings("DataFlowIssue")
+    public static final Supplier<BlockEntityType<EMCInterfaceBlockEntity>> LARGE_EMC_INTERFACE_BE = BE_TYPES.register("large_emc_interface", () -> {
+        var type = BlockEntityType.Builder.<EMCInterfaceBlockEntity>of(LargeEMCInterfaceBlockEntity::new, LARGE_EMC_INTERFACE.get()).build(null);
+        LARGE_EMC_INTERFACE.get().setBlockEntity(EMCInterfaceBlockEntity.class, type, null, null);
+        return type;
+    });
+
     public static final Supplier<MenuType<EMCInterfaceMenu>> EMC_INTERFACE_MENU = menu("emc_interface", EMCInterfaceMenu::new, EMCInterfaceLogicHost.class);
+    public static final Supplier<MenuType<EMCInterfaceMenu>> LARGE_EMC_INTERFACE_MENU = menu("large_emc_interface", EMCInterfaceMenu::new, EMCInterfaceLogicHost.class);
     public static final Supplier<MenuType<EMCSetStockAmountMenu>> EMC_SET_STOCK_AMOUNT_MENU = menu("emc_set_stock_amount", EMCSetStockAmountMenu::new, EMCInterfaceLogicHost.class);
 
     public static final Supplier<Item> EMC_EXPORT_BUS = ITEMS.register("emc_export_bus", () -> part(EMCExportBusPart.class, EMCExportBusPart::new));
@@ -141,6 +158,8 @@ public final class AppliedE {
                     output.accept(EMC_MODULE.get());
                     output.accept(EMC_INTERFACE.get());
                     output.accept(CABLE_EMC_INTERFACE.get());
+                    output.accept(LARGE_EMC_INTERFACE.get());
+                    output.accept(CABLE_LARGE_EMC_INTERFACE.get());
                     output.accept(EMC_EXPORT_BUS.get());
                     output.accept(EMC_IMPORT_BUS.get());
                     output.accept(TRANSMUTATION_TERMINAL.get());
@@ -178,6 +197,8 @@ public final class AppliedE {
             var emcInterfaceGroup = EMC_INTERFACE.get().getDescriptionId();
             Upgrades.add(LEARNING_CARD.get(), EMC_INTERFACE.get(), 1, emcInterfaceGroup);
             Upgrades.add(LEARNING_CARD.get(), CABLE_EMC_INTERFACE.get(), 1, emcInterfaceGroup);
+            Upgrades.add(LEARNING_CARD.get(), LARGE_EMC_INTERFACE.get(), 1, emcInterfaceGroup);
+            Upgrades.add(LEARNING_CARD.get(), CABLE_LARGE_EMC_INTERFACE.get(), 1, emcInterfaceGroup);
             Upgrades.add(LEARNING_CARD.get(), EMC_IMPORT_BUS.get(), 1);
         });
 
@@ -185,11 +206,16 @@ public final class AppliedE {
             event.registerBlockEntity(AECapabilities.IN_WORLD_GRID_NODE_HOST, EMC_INTERFACE_BE.get(), (be, $) -> be);
             event.registerBlockEntity(AECapabilities.ME_STORAGE, EMC_INTERFACE_BE.get(),(be, $) -> be.getInterfaceLogic().getInventory());
             event.registerBlockEntity(Capabilities.ItemHandler.BLOCK, EMC_INTERFACE_BE.get(), (be, $) -> new GenericStackItemStorage(be.getInterfaceLogic().getStorage()));
+            event.registerBlockEntity(AECapabilities.IN_WORLD_GRID_NODE_HOST, LARGE_EMC_INTERFACE_BE.get(), (be, $) -> be);
+            event.registerBlockEntity(AECapabilities.ME_STORAGE, LARGE_EMC_INTERFACE_BE.get(),(be, $) -> be.getInterfaceLogic().getInventory());
+            event.registerBlockEntity(Capabilities.ItemHandler.BLOCK, LARGE_EMC_INTERFACE_BE.get(), (be, $) -> new GenericStackItemStorage(be.getInterfaceLogic().getStorage()));
         });
 
         eventBus.addListener(RegisterPartCapabilitiesEvent.class, event -> {
             event.register(AECapabilities.ME_STORAGE, (part, $) -> part.getInterfaceLogic().getInventory(), EMCInterfacePart.class);
             event.register(Capabilities.ItemHandler.BLOCK, (part, $) -> new GenericStackItemStorage(part.getInterfaceLogic().getStorage()), EMCInterfacePart.class);
+            event.register(AECapabilities.ME_STORAGE, (part, $) -> part.getInterfaceLogic().getInventory(), LargeEMCInterfacePart.class);
+            event.register(Capabilities.ItemHandler.BLOCK, (part, $) -> new GenericStackItemStorage(part.getInterfaceLogic().getStorage()), LargeEMCInterfacePart.class);
         });
 
         eventBus.addListener(RegisterPayloadHandlersEvent.class, event -> event.registrar("1").playToServer(LearnAllItemsPacket.TYPE, LearnAllItemsPacket.STREAM_CODEC, LearnAllItemsPacket::handle));
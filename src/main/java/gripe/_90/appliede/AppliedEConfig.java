@@ -18,6 +18,8 @@ public class AppliedEConfig {
     private final ModConfigSpec.IntValue emcPerByte;
     private final ModConfigSpec.BooleanValue terminalExtractFromOwnEmcOnly;
     private final ModConfigSpec.IntValue syncThrottleInterval;
+    private final ModConfigSpec.BooleanValue roundTemporaryPatterns;
+    private final ModConfigSpec.IntValue busOverclockLimit;
 
     private AppliedEConfig(ModConfigSpec.Builder builder) {
         moduleEnergyUsage = builder.comment("The amount of AE energy per tick used by the ME Transmutation Module.")
@@ -26,6 +28,7 @@ public class AppliedEConfig {
                 .defineInRange("transmutationPowerMultiplier", 1.0, 0, Double.MAX_VALUE);
         emcPerByte = builder.comment(
                         "The number of EMC units (of any tier) per byte as used in AE2 auto-crafting.",
+                        "Amounts larger than a single tier are charged as their equivalent in higher tiers.",
                         "It is not recommended to set this very low as this will require unreasonably large",
                         "amounts of crafting storage for some jobs.")
                 .defineInRange("emcPerByte", 1000000, 1, Integer.MAX_VALUE);
@@ -37,6 +40,15 @@ public class AppliedEConfig {
         syncThrottleInterval = builder.comment(
                         "How many ticks to wait before the next player EMC sync when manipulating stored EMC.")
                 .defineInRange("syncThrottleInterval", 20, 1, 200);
+        roundTemporaryPatterns = builder.comment(
+                        "Round the amounts transmuted by the temporary patterns created for crafting requests up to the",
+                        "next power of two, so that repeated requests of similar sizes can share the same patterns.",
+                        "Any surplus items are returned to storage once the crafting job completes.")
+                .define("roundTemporaryPatterns", false);
+        busOverclockLimit = builder.comment(
+                        "The maximum factor by which EMC import and export buses may multiply their operations per tick",
+                        "while they are working through a backlog. Set to 1 to disable overclocking entirely.")
+                .defineInRange("busOverclockLimit", 8, 1, 64);
     }
 
     public double getModuleEnergyUsage() {
@@ -59,6 +71,14 @@ public class AppliedEConfig {
         return syncThrottleInterval.get();
     }
 
+    public boolean roundTemporaryPatterns() {
+        return roundTemporaryPatterns.get();
+    }
+
+    public int getBusOverclockLimit() {
+        return busOverclockLimit.get();
+    }
+
     public static class Client {
         public static final Client CONFIG;
         public static final IConfigSpec SPEC;
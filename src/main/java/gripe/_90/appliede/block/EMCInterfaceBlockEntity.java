@@ -83,6 +83,6 @@ public class EMCInterfaceBlockEntity extends AENetworkedBlockEntity implements E
 
     @Override
     public ItemStack getMainMenuIcon() {
-        return AppliedE.EMC_INTERFACE.get().asItem().getDefaultInstance();
+        return getItemFromBlockEntity().getDefaultInstance();
     }
 }
@@ -0,0 +1,30 @@
+package gripe._90.appliede.block;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.inventory.MenuType;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.state.BlockState;
+
+import gripe._90.appliede.AppliedE;
+import gripe._90.appliede.me.misc.EMCInterfaceLogic;
+
+public class LargeEMCInterfaceBlockEntity extends EMCInterfaceBlockEntity {
+    public LargeEMCInterfaceBlockEntity(BlockPos pos, BlockState state) {
+        super(AppliedE.LARGE_EMC_INTERFACE_BE.get(), pos, state);
+    }
+
+    @Override
+    protected EMCInterfaceLogic createLogic() {
+        return new EMCInterfaceLogic(getMainNode(), this, getItemFromBlockEntity(), EMCInterfaceLogic.LARGE_SLOTS);
+    }
+
+    @Override
+    public MenuType<?> getMenuType() {
+        return AppliedE.LARGE_EMC_INTERFACE_MENU.get();
+    }
+
+    @Override
+    protected Item getItemFromBlockEntity() {
+        return AppliedE.LARGE_EMC_INTERFACE.get().asItem();
+    }
+}
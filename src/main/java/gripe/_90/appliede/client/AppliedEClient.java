@@ -43,6 +43,11 @@ public class AppliedEClient {
                     AppliedE.EMC_INTERFACE_MENU.get(),
                     EMCInterfaceScreen<EMCInterfaceMenu>::new,
                     "/screens/appliede/emc_interface.json");
+            InitScreens.register(
+                    event,
+                    AppliedE.LARGE_EMC_INTERFACE_MENU.get(),
+                    EMCInterfaceScreen<EMCInterfaceMenu>::new,
+                    "/screens/appliede/large_emc_interface.json");
             InitScreens.register(
                     event,
                     AppliedE.EMC_SET_STOCK_AMOUNT_MENU.get(),
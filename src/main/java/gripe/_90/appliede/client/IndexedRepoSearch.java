@@ -0,0 +1,5 @@
+package gripe._90.appliede.client;
+
+public interface IndexedRepoSearch {
+    void appliede$setIndex(KnownItemSearchIndex index);
+}
@@ -0,0 +1,143 @@
+package gripe._90.appliede.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import net.neoforged.fml.ModList;
+
+import appeng.api.stacks.AEKey;
+import appeng.core.AEConfig;
+
+// trigram index over display names and mod IDs/names, only ever used to rule entries out before AE2's own search runs
+public class KnownItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final Pattern INDEXABLE_SEARCH = Pattern.compile("[\\p{L}\\p{N}@\\s]*");
+
+    private final Map<AEKey, String> names = new HashMap<>();
+    private final Map<String, Set<AEKey>> grams = new HashMap<>();
+    private final Map<String, Set<AEKey>> mods = new HashMap<>();
+    private final Map<String, String> modNames = new HashMap<>();
+
+    private final List<String> nameTerms = new ArrayList<>();
+    private final List<String> modTerms = new ArrayList<>();
+    private Set<AEKey> candidates;
+
+    public void setSearch(String search) {
+        var lowerSearch = search.toLowerCase();
+        nameTerms.clear();
+        modTerms.clear();
+        candidates = null;
+
+        // anything beyond plain name and mod terms (tooltips, tags, IDs, alternatives) is left entirely to AE2
+        if (!INDEXABLE_SEARCH.matcher(lowerSearch).matches()) {
+            return;
+        }
+
+        // with tooltip search on, plain terms may match tooltip lines the index never sees, so only narrow by mod then
+        var narrowNames = !AEConfig.instance().isSearchTooltips();
+
+        for (var term : lowerSearch.trim().split("\\s+")) {
+            if (term.startsWith("@")) {
+                if (term.length() > 1) {
+                    modTerms.add(term.substring(1));
+                }
+            } else if (narrowNames && term.length() >= GRAM_LENGTH && term.indexOf('@') < 0) {
+                nameTerms.add(term);
+            }
+        }
+
+        if (!nameTerms.isEmpty() || !modTerms.isEmpty()) {
+            candidates = findCandidates();
+        }
+    }
+
+    public boolean mayMatch(AEKey key) {
+        if (!names.containsKey(key)) {
+            index(key);
+
+            if (candidates != null && matchesTerms(key)) {
+                candidates.add(key);
+            }
+        }
+
+        return candidates == null || candidates.contains(key);
+    }
+
+    private void index(AEKey key) {
+        var name = key.getDisplayName().getString().toLowerCase();
+        names.put(key, name);
+
+        for (var i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            grams.computeIfAbsent(name.substring(i, i + GRAM_LENGTH), gram -> new HashSet<>()).add(key);
+        }
+
+        var modId = key.getModId();
+        mods.computeIfAbsent(modId, id -> new HashSet<>()).add(key);
+        modNames.computeIfAbsent(modId, id -> ModList.get()
+                .getModContainerById(id)
+                .map(mod -> mod.getModInfo().getDisplayName().toLowerCase())
+                .orElse(id));
+    }
+
+    private Set<AEKey> findCandidates() {
+        Set<AEKey> found = null;
+
+        for (var term : nameTerms) {
+            for (var i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+                var keys = grams.getOrDefault(term.substring(i, i + GRAM_LENGTH), Collections.emptySet());
+                found = retain(found, keys);
+            }
+        }
+
+        for (var term : modTerms) {
+            var keys = new HashSet<AEKey>();
+
+            mods.forEach((modId, modKeys) -> {
+                if (matchesMod(modId, term)) {
+                    keys.addAll(modKeys);
+                }
+            });
+
+            found = retain(found, keys);
+        }
+
+        return found != null ? found : new HashSet<>();
+    }
+
+    private boolean matchesTerms(AEKey key) {
+        var name = names.get(key);
+
+        for (var term : nameTerms) {
+            if (!name.contains(term)) {
+                return false;
+            }
+        }
+
+        for (var term : modTerms) {
+            if (!matchesMod(key.getModId(), term)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean matchesMod(String modId, String term) {
+        return modId.contains(term) || modNames.getOrDefault(modId, modId).contains(term);
+    }
+
+    private static Set<AEKey> retain(Set<AEKey> found, Set<AEKey> keys) {
+        if (found == null) {
+            return new HashSet<>(keys);
+        }
+
+        found.retainAll(keys);
+        return found;
+    }
+}
@@ -2,7 +2,9 @@ package gripe._90.appliede.client.screen;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
+import net.minecraft.ChatFormatting;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.entity.player.Inventory;
@@ -11,17 +13,25 @@ import appeng.client.gui.Icon;
 import appeng.client.gui.implementations.UpgradeableScreen;
 import appeng.client.gui.style.ScreenStyle;
 import appeng.client.gui.widgets.IconButton;
+import appeng.client.gui.widgets.ToggleButton;
 import appeng.core.localization.ButtonToolTips;
-import appeng.menu.SlotSemantics;
 
+import gripe._90.appliede.me.misc.RefillMode;
 import gripe._90.appliede.menu.EMCInterfaceMenu;
 
 public class EMCInterfaceScreen<M extends EMCInterfaceMenu> extends UpgradeableScreen<M> {
+    private static final Component BRIDGE = Component.translatable("gui.appliede.bridge");
+    private static final Component BRIDGE_ON = Component.translatable("gui.appliede.bridge.on");
+    private static final Component BRIDGE_OFF = Component.translatable("gui.appliede.bridge.off");
+
     private final List<Button> amountButtons = new ArrayList<>();
+    private final RefillModeButton refillModeButton;
+    private final PageButton pageButton;
+    private final ToggleButton bridgeButton;
 
     public EMCInterfaceScreen(M menu, Inventory playerInventory, Component title, ScreenStyle style) {
         super(menu, playerInventory, title, style);
-        var configSlots = menu.getSlots(SlotSemantics.CONFIG);
+        var configSlots = menu.getConfigSlots();
 
         for (int i = 0; i < configSlots.size(); i++) {
             var button = new SetAmountButton(btn -> {
@@ -35,6 +45,16 @@ public class EMCInterfaceScreen<M extends EMCInterfaceMenu> extends UpgradeableS
             widgets.add("amtButton" + (1 + i), button);
             amountButtons.add(button);
         }
+
+        refillModeButton = addToLeftToolbar(new RefillModeButton(btn -> menu.cycleRefillMode()));
+        pageButton = addToLeftToolbar(new PageButton(btn -> menu.setPage(menu.page + 1)));
+        pageButton.visible = menu.getPages() > 1;
+
+        bridgeButton = new ToggleButton(Icon.ACCESS_READ_WRITE, Icon.ACCESS_WRITE, menu::setBridging);
+        bridgeButton.setTooltipOn(List.of(BRIDGE, BRIDGE_ON.copy().withStyle(ChatFormatting.GRAY)));
+        bridgeButton.setTooltipOff(List.of(BRIDGE, BRIDGE_OFF.copy().withStyle(ChatFormatting.GRAY)));
+        bridgeButton.visible = menu.canBridge();
+        addToLeftToolbar(bridgeButton);
     }
 
     @Override
@@ -43,8 +63,58 @@ public class EMCInterfaceScreen<M extends EMCInterfaceMenu> extends UpgradeableS
 
         for (int i = 0; i < amountButtons.size(); i++) {
             var button = amountButtons.get(i);
-            var item = menu.getSlots(SlotSemantics.CONFIG).get(i).getItem();
-            button.visible = !item.isEmpty();
+            var slot = menu.getConfigSlots().get(i);
+            button.visible = slot.isActive() && !slot.getItem().isEmpty();
+        }
+
+        refillModeButton.mode = menu.refillMode;
+        bridgeButton.setState(menu.bridging);
+
+        if (menu.getPages() > 1) {
+            setTextContent("page", Component.translatable("gui.appliede.page", menu.page + 1, menu.getPages()));
+        }
+    }
+
+    private static class RefillModeButton extends IconButton {
+        private static final Component TITLE = Component.translatable("gui.appliede.refill_mode");
+
+        private RefillMode mode = RefillMode.EXACT;
+
+        public RefillModeButton(OnPress onPress) {
+            super(onPress);
+        }
+
+        @Override
+        protected Icon getIcon() {
+            return switch (mode) {
+                case EXACT -> Icon.FULLNESS_FULL;
+                case HALF -> Icon.FULLNESS_HALF;
+                case EMPTY -> Icon.FULLNESS_EMPTY;
+            };
+        }
+
+        @Override
+        public List<Component> getTooltipMessage() {
+            var description = "gui.appliede.refill_mode." + mode.name().toLowerCase(Locale.ROOT);
+            return List.of(TITLE, Component.translatable(description).withStyle(ChatFormatting.GRAY));
+        }
+    }
+
+    private static class PageButton extends IconButton {
+        private static final Component TITLE = Component.translatable("gui.appliede.next_page");
+
+        public PageButton(OnPress onPress) {
+            super(onPress);
+        }
+
+        @Override
+        protected Icon getIcon() {
+            return Icon.ARROW_RIGHT;
+        }
+
+        @Override
+        public List<Component> getTooltipMessage() {
+            return List.of(TITLE);
         }
     }
 
@@ -12,8 +12,11 @@ import appeng.client.gui.style.ScreenStyle;
 import appeng.client.gui.widgets.ToggleButton;
 
 import gripe._90.appliede.AppliedE;
+import gripe._90.appliede.client.IndexedRepoSearch;
+import gripe._90.appliede.client.KnownItemSearchIndex;
 import gripe._90.appliede.me.misc.LearnAllItemsPacket;
 import gripe._90.appliede.menu.TransmutationTerminalMenu;
+import gripe._90.appliede.mixin.misc.RepoAccessor;
 
 public class TransmutationTerminalScreen<C extends TransmutationTerminalMenu> extends MEStorageScreen<C> {
     private static final Component SHIFT_STORING = guiString("shift_storing");
@@ -22,15 +25,27 @@ public class TransmutationTerminalScreen<C extends TransmutationTerminalMenu> ex
     private static final Component TOGGLE_TRANSMUTING = guiString("toggle_transmutation");
 
     private static final Component LEARN_ALL = guiString("learn_all");
+    private static final Component TRANSMUTE_INVENTORY = guiString("transmute_inventory");
     private static final Component ARE_YOU_SURE = guiString("are_you_sure");
 
+    private static final int LABEL_TICKS = 100;
+
     private final ToggleButton toggleShiftButton;
     private final ToggleButton learnAllButton;
+    private final ToggleButton transmuteInventoryButton;
 
     private boolean attemptingToLearn;
+    private boolean attemptingToTransmute;
+    private int seenLearnedEvents;
+    private int seenUnlearnedEvents;
+    private int learnedLabelTicks;
+    private int unlearnedLabelTicks;
 
     public TransmutationTerminalScreen(C menu, Inventory playerInventory, Component title, ScreenStyle style) {
         super(menu, playerInventory, title, style);
+        // known items can run into the tens of thousands, so narrow searches down before AE2 goes through each entry
+        ((IndexedRepoSearch) ((RepoAccessor) repo).getSearch()).appliede$setIndex(new KnownItemSearchIndex());
+
         toggleShiftButton = new ToggleButton(Icon.ARROW_LEFT, Icon.ARROW_UP, menu::setShiftToTransmute);
         toggleShiftButton.setTooltipOn(List.of(SHIFT_TRANSMUTING, TOGGLE_STORING));
         toggleShiftButton.setTooltipOff(List.of(SHIFT_STORING, TOGGLE_TRANSMUTING));
@@ -41,10 +56,16 @@ public class TransmutationTerminalScreen<C extends TransmutationTerminalMenu> ex
         learnAllButton.setTooltipOff(List.of(LEARN_ALL));
         learnAllButton.setTooltipOn(List.of(LEARN_ALL, ARE_YOU_SURE));
         widgets.add("learnAllItems", learnAllButton);
+
+        var transmuteIcon = Icon.CONDENSER_OUTPUT_MATTER_BALL;
+        transmuteInventoryButton = new ToggleButton(transmuteIcon, transmuteIcon, this::transmuteInventory);
+        transmuteInventoryButton.setTooltipOff(List.of(TRANSMUTE_INVENTORY));
+        transmuteInventoryButton.setTooltipOn(List.of(TRANSMUTE_INVENTORY, ARE_YOU_SURE));
+        widgets.add("transmuteInventory", transmuteInventoryButton);
     }
 
-    private static Component guiString(String key) {
-        return Component.translatable("gui." + AppliedE.MODID + "." + key);
+    private static Component guiString(String key, Object... args) {
+        return Component.translatable("gui." + AppliedE.MODID + "." + key, args);
     }
 
     @Override
@@ -52,15 +73,40 @@ public class TransmutationTerminalScreen<C extends TransmutationTerminalMenu> ex
         super.updateBeforeRender();
         toggleShiftButton.setState(menu.shiftToTransmute);
         learnAllButton.setState(attemptingToLearn);
-        setTextHidden("learned", menu.learnedLabelTicks <= 0);
-        setTextHidden("unlearned", menu.unlearnedLabelTicks <= 0);
+        transmuteInventoryButton.setState(attemptingToTransmute);
+
+        if (menu.learnedEvents != seenLearnedEvents) {
+            seenLearnedEvents = menu.learnedEvents;
+            learnedLabelTicks = LABEL_TICKS;
+            unlearnedLabelTicks = 0;
+        }
+
+        if (menu.unlearnedEvents != seenUnlearnedEvents) {
+            seenUnlearnedEvents = menu.unlearnedEvents;
+            unlearnedLabelTicks = LABEL_TICKS;
+            learnedLabelTicks = 0;
+        }
+
+        setTextHidden("learned", learnedLabelTicks <= 0 || menu.learnAllProgress >= 0);
+        setTextHidden("learning", menu.learnAllProgress < 0);
+
+        if (menu.learnAllProgress >= 0) {
+            setTextContent("learning", guiString("learning", menu.learnAllProgress));
+        }
+
+        setTextHidden("unlearned", unlearnedLabelTicks <= 0);
+    }
+
+    @Override
+    protected void containerTick() {
+        super.containerTick();
 
-        if (menu.learnedLabelTicks > 0) {
-            menu.decrementLearnedTicks();
+        if (learnedLabelTicks > 0) {
+            learnedLabelTicks--;
         }
 
-        if (menu.unlearnedLabelTicks > 0) {
-            menu.decrementUnlearnedTicks();
+        if (unlearnedLabelTicks > 0) {
+            unlearnedLabelTicks--;
         }
     }
 
@@ -71,4 +117,12 @@ public class TransmutationTerminalScreen<C extends TransmutationTerminalMenu> ex
             PacketDistributor.sendToServer(new LearnAllItemsPacket());
         }
     }
+
+    private void transmuteInventory(boolean transmuting) {
+        attemptingToTransmute = transmuting;
+
+        if (!transmuting) {
+            menu.transmuteInventory();
+        }
+    }
 }
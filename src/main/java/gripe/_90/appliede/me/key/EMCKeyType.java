@@ -1,5 +1,7 @@
 package gripe._90.appliede.me.key;
 
+import java.math.BigInteger;
+
 import com.mojang.serialization.MapCodec;
 
 import net.minecraft.network.RegistryFriendlyByteBuf;
@@ -34,6 +36,20 @@ public final class EMCKeyType extends AEKeyType {
         return AppliedEConfig.CONFIG.getEmcPerByte();
     }
 
+    public double getNormalisedBytes(BigInteger amount) {
+        // charge each whole tier's worth of units as a single unit of the tier above it, keeping fractional bytes
+        var perByte = (double) getAmountPerByte();
+        var bytes = 0.0;
+
+        while (amount.signum() > 0) {
+            var tiers = amount.divideAndRemainder(AppliedE.TIER_LIMIT);
+            bytes += tiers[1].doubleValue() / perByte;
+            amount = tiers[0];
+        }
+
+        return bytes;
+    }
+
     @Override
     public int getAmountPerOperation() {
         return 2000;
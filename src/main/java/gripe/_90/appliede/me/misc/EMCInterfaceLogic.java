@@ -1,8 +1,17 @@
 package gripe._90.appliede.me.misc;
 
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 
+import it.unimi.dsi.fastutil.objects.Object2BooleanMap;
+import it.unimi.dsi.fastutil.objects.Object2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.core.HolderLookup;
@@ -24,6 +33,9 @@ import appeng.api.networking.ticking.TickingRequest;
 import appeng.api.stacks.AEItemKey;
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.GenericStack;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.IStorageMounts;
+import appeng.api.storage.IStorageProvider;
 import appeng.api.storage.MEStorage;
 import appeng.api.upgrades.IUpgradeInventory;
 import appeng.api.upgrades.IUpgradeableObject;
@@ -33,12 +45,13 @@ import appeng.util.ConfigInventory;
 import appeng.util.Platform;
 
 import gripe._90.appliede.AppliedE;
-import gripe._90.appliede.me.service.EMCStorage;
 import gripe._90.appliede.me.service.KnowledgeService;
 
 import moze_intel.projecte.api.proxy.IEMCProxy;
 
-public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeableObject {
+public class EMCInterfaceLogic implements IActionHost, IGridTickable, IStorageProvider, IUpgradeableObject {
+    public static final int LARGE_SLOTS = 36;
+
     protected final EMCInterfaceLogicHost host;
     protected final IManagedGridNode mainNode;
 
@@ -47,13 +60,34 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
     private final IUpgradeInventory upgrades;
 
     private final MEStorage localInvHandler;
-    private final GenericStack[] plannedWork;
+    private final AEKey[] plannedKeys;
+    private final long[] plannedAmounts;
+    private final BitSet plannedSlots;
+    private final GenericStack[] seenConfig;
+    private final GenericStack[] seenStorage;
+    private final AEKey[] slotKeys;
+    private final long[] slotAmounts;
+    private final BitSet settledSlots;
+    private final KeyCounter deposits = new KeyCounter();
+    private final KeyCounter withdrawals = new KeyCounter();
     private final IActionSource source = IActionSource.ofMachine(this);
 
     @Nullable
     private WrappedEMCStorage emcStorage;
 
+    private final Object2BooleanMap<AEItemKey> filterResults = new Object2BooleanOpenHashMap<>();
+    private KnowledgeService filterKnowledge;
+    private int filterKnowledgeVersion;
+
     private boolean hasConfig;
+    private boolean settling;
+    private RefillMode refillMode = RefillMode.EXACT;
+
+    private boolean bridging;
+    private boolean bridgeDirty = true;
+
+    @Nullable
+    private IGridNode bridgedNode;
 
     public EMCInterfaceLogic(IManagedGridNode node, EMCInterfaceLogicHost host, Item is) {
         this(node, host, is, 9);
@@ -63,6 +97,7 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
         this.host = host;
         mainNode = node.setFlags(GridFlags.REQUIRE_CHANNEL)
                 .addService(IGridTickable.class, this)
+                .addService(IStorageProvider.class, this)
                 .setIdlePowerUsage(10);
 
         config = ConfigInventory.configStacks(slots)
@@ -73,10 +108,17 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
                 .slotFilter(this::storageFilter)
                 .changeListener(this::onStorageChanged)
                 .build();
-        upgrades = UpgradeInventories.forMachine(is, 1, host::saveChanges);
+        upgrades = UpgradeInventories.forMachine(is, 1, this::onUpgradesChanged);
 
         localInvHandler = new DelegatingMEInventory(storage);
-        plannedWork = new GenericStack[slots];
+        plannedKeys = new AEKey[slots];
+        plannedAmounts = new long[slots];
+        plannedSlots = new BitSet(slots);
+        seenConfig = new GenericStack[slots];
+        seenStorage = new GenericStack[slots];
+        slotKeys = new AEKey[slots];
+        slotAmounts = new long[slots];
+        settledSlots = new BitSet(slots);
 
         config.useRegisteredCapacities();
         storage.useRegisteredCapacities();
@@ -99,6 +141,79 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
         return upgrades;
     }
 
+    public RefillMode getRefillMode() {
+        return refillMode;
+    }
+
+    public void setRefillMode(RefillMode refillMode) {
+        this.refillMode = refillMode;
+        host.saveChanges();
+
+        // re-plan every slot, as none of their stacks will have changed
+        Arrays.fill(seenConfig, null);
+        Arrays.fill(seenStorage, null);
+        updatePlan();
+    }
+
+    public boolean isBridging() {
+        return bridging;
+    }
+
+    public void setBridging(boolean bridging) {
+        this.bridging = bridging;
+        bridgeDirty = true;
+        host.saveChanges();
+
+        mainNode.ifPresent((grid, node) -> {
+            var knowledge = grid.getService(KnowledgeService.class);
+
+            if (bridging) {
+                knowledge.addBridge(this);
+            } else {
+                knowledge.removeBridge(this);
+            }
+        });
+
+        IStorageProvider.requestUpdate(mainNode);
+    }
+
+    public void onBridgeChanged() {
+        if (bridging) {
+            bridgeDirty = true;
+            IStorageProvider.requestUpdate(mainNode);
+        }
+    }
+
+    @Nullable
+    public KnowledgeService getBridgedKnowledge() {
+        if (!bridging || !mainNode.isActive()) {
+            return null;
+        }
+
+        // looking up the adjacent node means a block entity lookup, so only repeat it once something has changed
+        if (bridgeDirty) {
+            bridgedNode = host.getBridgedNode();
+            bridgeDirty = false;
+        }
+
+        var grid = bridgedNode != null ? bridgedNode.getGrid() : null;
+        return grid != null && grid != mainNode.getGrid() ? grid.getService(KnowledgeService.class) : null;
+    }
+
+    @Override
+    public void mountInventories(IStorageMounts mounts) {
+        var grid = mainNode.getGrid();
+
+        // only the one bridge a subnet actually borrows through mounts the parent's EMC, so it is never counted twice
+        if (grid != null && grid.getService(KnowledgeService.class).getActiveBridge() == this) {
+            var parent = getBridgedKnowledge();
+
+            if (parent != null) {
+                mounts.mount(parent.getStorage());
+            }
+        }
+    }
+
     private boolean storageFilter(AEKey what) {
         if (!(what instanceof AEItemKey item)) {
             return false;
@@ -112,17 +227,34 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
             return true;
         }
 
-        var knowledge = grid.getService(KnowledgeService.class);
-        return knowledge.getKnownItems().contains(item)
+        var knowledge = grid.getService(KnowledgeService.class).resolve();
+
+        if (knowledge != filterKnowledge || knowledge.getKnowledgeVersion() != filterKnowledgeVersion) {
+            filterKnowledge = knowledge;
+            filterKnowledgeVersion = knowledge.getKnowledgeVersion();
+            filterResults.clear();
+        }
+
+        // probed on every insertion attempt by anything piping into the interface, so remember the answer per item
+        if (filterResults.containsKey(item)) {
+            return filterResults.getBoolean(item);
+        }
+
+        var result = knowledge.getKnownItems().contains(item)
                 || (isUpgradedWith(AppliedE.LEARNING_CARD.get())
                         && IEMCProxy.INSTANCE.hasValue(item.toStack())
                         && knowledge.getProviderFor(node.getOwningPlayerProfileId()) != null);
+        filterResults.put(item, result);
+        return result;
     }
 
     public void readFromNBT(CompoundTag tag, HolderLookup.Provider registries) {
         config.readFromChildTag(tag, "config", registries);
         storage.readFromChildTag(tag, "storage", registries);
         upgrades.readFromNBT(tag, "upgrades", registries);
+        refillMode = RefillMode.fromName(tag.getString("refillMode"));
+        bridging = tag.getBoolean("bridging");
+        bridgeDirty = true;
         readConfig();
     }
 
@@ -130,6 +262,8 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
         config.writeToChildTag(tag, "config", registries);
         storage.writeToChildTag(tag, "storage", registries);
         upgrades.writeToNBT(tag, "upgrades", registries);
+        tag.putString("refillMode", refillMode.name());
+        tag.putBoolean("bridging", bridging);
     }
 
     @Nullable
@@ -149,19 +283,7 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
             return TickRateModulation.SLEEP;
         }
 
-        var couldDoWork = false;
-
-        for (var i = 0; i < plannedWork.length; i++) {
-            var work = plannedWork[i];
-
-            if (work != null) {
-                couldDoWork = tryUsePlan(i, work.what(), (int) work.amount()) || couldDoWork;
-
-                if (couldDoWork) {
-                    updatePlan(i);
-                }
-            }
-        }
+        var couldDoWork = usePlan(node.getGrid());
 
         return hasWorkToDo()
                 ? couldDoWork ? TickRateModulation.URGENT : TickRateModulation.SLOWER
@@ -169,20 +291,15 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
     }
 
     private boolean hasWorkToDo() {
-        for (var requiredWork : plannedWork) {
-            if (requiredWork != null) {
-                return true;
-            }
-        }
-
-        return false;
+        return !plannedSlots.isEmpty();
     }
 
     private void updatePlan() {
         var hadWork = hasWorkToDo();
 
+        // both inventories replace the stack object of any slot that changes, so only re-plan the slots that did
         for (var i = 0; i < config.size(); i++) {
-            updatePlan(i);
+            replanSlot(i);
         }
 
         var hasWork = hasWorkToDo();
@@ -198,85 +315,148 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
         }
     }
 
-    private void updatePlan(int slot) {
+    private void replanSlot(int slot) {
         var req = config.getStack(slot);
         var stored = storage.getStack(slot);
 
+        if (req != seenConfig[slot] || stored != seenStorage[slot]) {
+            seenConfig[slot] = req;
+            seenStorage[slot] = stored;
+            updatePlan(slot, req, stored);
+        }
+    }
+
+    private void updatePlan(int slot, @Nullable GenericStack req, @Nullable GenericStack stored) {
+        AEKey what = null;
+        var amount = 0L;
+
         if (req == null && stored != null) {
-            plannedWork[slot] = new GenericStack(stored.what(), -stored.amount());
+            what = stored.what();
+            amount = -stored.amount();
         } else if (req != null) {
             if (stored == null) {
-                plannedWork[slot] = req;
+                what = req.what();
+                amount = req.amount();
             } else if (req.what().equals(stored.what())) {
-                plannedWork[slot] = req.amount() != stored.amount()
-                        ? new GenericStack(req.what(), req.amount() - stored.amount())
-                        : null;
+                what = req.what();
+                amount = req.amount() - stored.amount();
+
+                // top up in one go once stock falls far enough, rather than for every item taken out
+                if (amount > 0 && !refillMode.shouldRefill(stored.amount(), req.amount())) {
+                    amount = 0;
+                }
             } else {
-                plannedWork[slot] = new GenericStack(stored.what(), -stored.amount());
+                what = stored.what();
+                amount = -stored.amount();
             }
-        } else {
-            plannedWork[slot] = null;
         }
+
+        plannedKeys[slot] = amount != 0 ? what : null;
+        plannedAmounts[slot] = amount;
+        plannedSlots.set(slot, amount != 0);
     }
 
-    private boolean tryUsePlan(int slot, AEKey what, int amount) {
-        if (!(what instanceof AEItemKey item)) {
-            return false;
-        }
+    private boolean usePlan(IGrid grid) {
+        // only the slots settled below can change, so re-plan just those afterwards instead of on every storage change
+        settling = true;
 
-        var grid = mainNode.getGrid();
+        try {
+            return settlePlan(grid);
+        } finally {
+            settling = false;
 
-        if (grid == null) {
-            return false;
+            for (var slot = settledSlots.nextSetBit(0); slot >= 0; slot = settledSlots.nextSetBit(slot + 1)) {
+                replanSlot(slot);
+            }
+
+            settledSlots.clear();
         }
+    }
+
+    private boolean settlePlan(IGrid grid) {
+        var couldDoWork = false;
+        deposits.clear();
+        withdrawals.clear();
 
-        if (amount < 0) {
-            amount = -amount;
-            var inSlot = storage.getStack(slot);
+        // gather the plan for every slot first so that the whole tick only settles with the network once each way
+        for (var slot = plannedSlots.nextSetBit(0); slot >= 0; slot = plannedSlots.nextSetBit(slot + 1)) {
+            slotKeys[slot] = null;
+            slotAmounts[slot] = 0;
 
-            if (!what.matches(inSlot) || inSlot.amount() < amount) {
-                return true;
+            if (!(plannedKeys[slot] instanceof AEItemKey item)) {
+                continue;
             }
 
-            var depositedItems = grid.getService(KnowledgeService.class)
-                    .getStorage()
-                    .insertItem(
-                            item, amount, Actionable.MODULATE, source, isUpgradedWith(AppliedE.LEARNING_CARD.get()));
+            var planned = plannedAmounts[slot];
 
-            if (depositedItems > 0) {
-                storage.extract(slot, what, depositedItems, Actionable.MODULATE);
-                return true;
+            if (planned < 0) {
+                var inSlot = storage.getStack(slot);
+
+                if (!item.matches(inSlot) || inSlot.amount() < -planned) {
+                    couldDoWork = true;
+                    continue;
+                }
+
+                slotKeys[slot] = item;
+                slotAmounts[slot] = planned;
+                deposits.add(item, -planned);
+            } else {
+                var insertable = storage.insert(slot, item, planned, Actionable.SIMULATE);
+
+                if (insertable != planned) {
+                    couldDoWork = true;
+                }
+
+                slotKeys[slot] = item;
+                slotAmounts[slot] = insertable;
+                withdrawals.add(item, insertable);
             }
         }
 
-        if (amount > 0) {
-            return storage.insert(slot, what, amount, Actionable.SIMULATE) != amount
-                    || acquireFromNetwork(grid, slot, what, amount);
-        }
+        var emcStorage = grid.getService(KnowledgeService.class).resolve().getStorage();
 
-        return false;
-    }
+        if (!deposits.isEmpty()) {
+            var deposited = emcStorage.insertItems(deposits, source, isUpgradedWith(AppliedE.LEARNING_CARD.get()));
 
-    private boolean acquireFromNetwork(IGrid grid, int slot, AEKey what, long amount) {
-        if (!(what instanceof AEItemKey item)) {
-            return false;
+            for (var slot = plannedSlots.nextSetBit(0); slot >= 0; slot = plannedSlots.nextSetBit(slot + 1)) {
+                if (slotAmounts[slot] < 0) {
+                    var what = slotKeys[slot];
+                    var amount = Math.min(-slotAmounts[slot], deposited.get(what));
+
+                    if (amount > 0) {
+                        deposited.remove(what, storage.extract(slot, what, amount, Actionable.MODULATE));
+                        settledSlots.set(slot);
+                        couldDoWork = true;
+                    }
+                }
+            }
         }
 
-        var acquiredItems = grid.getService(KnowledgeService.class)
-                .getStorage()
-                .extractItem(item, amount, Actionable.MODULATE, source, true);
+        if (!withdrawals.isEmpty()) {
+            var acquired = emcStorage.extractItems(withdrawals, source);
 
-        if (acquiredItems > 0) {
-            var inserted = storage.insert(slot, what, acquiredItems, Actionable.MODULATE);
+            for (var slot = plannedSlots.nextSetBit(0); slot >= 0; slot = plannedSlots.nextSetBit(slot + 1)) {
+                if (slotAmounts[slot] > 0) {
+                    var what = slotKeys[slot];
+                    var amount = Math.min(slotAmounts[slot], acquired.get(what));
 
-            if (inserted < acquiredItems) {
-                throw new IllegalStateException("Bad attempt at managing inventory. Voided items: " + inserted);
-            }
+                    if (amount > 0) {
+                        var inserted = storage.insert(slot, what, amount, Actionable.MODULATE);
+                        settledSlots.set(slot);
 
-            return true;
-        } else {
-            return false;
+                        if (inserted < amount) {
+                            throw new IllegalStateException(
+                                    "Bad attempt at managing inventory. Voided items: " + (amount - inserted));
+                        }
+
+                        acquired.remove(what, inserted);
+                        couldDoWork = true;
+                    }
+                }
+            }
         }
+
+        return couldDoWork;
     }
 
     private void readConfig() {
@@ -290,9 +470,17 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
         readConfig();
     }
 
+    private void onUpgradesChanged() {
+        filterResults.clear();
+        host.saveChanges();
+    }
+
     private void onStorageChanged() {
         host.saveChanges();
-        updatePlan();
+
+        if (!settling) {
+            updatePlan();
+        }
     }
 
     public void notifyNeighbours() {
@@ -310,9 +498,10 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
     }
 
     public void gridChanged() {
-        emcStorage = new WrappedEMCStorage(Objects.requireNonNull(mainNode.getGrid())
-                .getService(KnowledgeService.class)
-                .getStorage());
+        filterResults.clear();
+        bridgeDirty = true;
+        emcStorage = new WrappedEMCStorage(
+                Objects.requireNonNull(mainNode.getGrid()).getService(KnowledgeService.class));
         notifyNeighbours();
     }
 
@@ -339,19 +528,102 @@ public class EMCInterfaceLogic implements IActionHost, IGridTickable, IUpgradeab
     }
 
     private class WrappedEMCStorage implements MEStorage {
-        private final EMCStorage storage;
+        private final KnowledgeService ownKnowledge;
+        private final KeyCounter availableStacks = new KeyCounter();
+        private final Object2LongMap<AEItemKey> stackValues = new Object2LongOpenHashMap<>();
+
+        private KnowledgeService stacksKnowledge;
+        private int stacksKnowledgeVersion = -1;
+        private BigInteger stacksEmc;
+        private long stacksTick = -1;
 
-        private WrappedEMCStorage(EMCStorage storage) {
-            this.storage = storage;
+        private WrappedEMCStorage(KnowledgeService ownKnowledge) {
+            this.ownKnowledge = ownKnowledge;
+        }
+
+        private KnowledgeService knowledge() {
+            return ownKnowledge.resolve();
         }
 
         @Override
         public long insert(AEKey what, long amount, Actionable mode, IActionSource source) {
-            return what instanceof AEItemKey item && mainNode.isActive()
-                    ? storage.insertItem(item, amount, mode, source, isUpgradedWith(AppliedE.LEARNING_CARD.get()))
+            return what instanceof AEItemKey item && isAvailable()
+                    ? knowledge()
+                            .getStorage()
+                            .insertItem(item, amount, mode, source, isUpgradedWith(AppliedE.LEARNING_CARD.get()))
+                    : 0;
+        }
+
+        @Override
+        public long extract(AEKey what, long amount, Actionable mode, IActionSource source) {
+            // withdraw as the interface itself, since the requesting source belongs to whichever grid is reading it
+            return what instanceof AEItemKey item && isAvailable()
+                    ? knowledge().getStorage().extractItem(item, amount, mode, EMCInterfaceLogic.this.source, true)
                     : 0;
         }
 
+        @Override
+        public void getAvailableStacks(KeyCounter out) {
+            if (isAvailable()) {
+                updateAvailableStacks();
+
+                for (var entry : availableStacks) {
+                    if (entry.getLongValue() > 0) {
+                        out.add(entry.getKey(), entry.getLongValue());
+                    }
+                }
+            }
+        }
+
+        private boolean isAvailable() {
+            return mainNode.isActive() && knowledge().hasActiveModule();
+        }
+
+        private void updateAvailableStacks() {
+            var be = host.getBlockEntity();
+            var tick = be != null && be.getLevel() != null ? be.getLevel().getGameTime() : -1;
+
+            // storage buses may poll several times a tick, but neither knowledge nor EMC can change in between
+            if (tick != -1 && tick == stacksTick) {
+                return;
+            }
+
+            stacksTick = tick;
+            var knowledge = knowledge();
+            var snapshot = knowledge.getSnapshot();
+
+            // the set of stocked items only changes with knowledge, so EMC changes merely re-price the existing keys
+            if (knowledge != stacksKnowledge || knowledge.getKnowledgeVersion() != stacksKnowledgeVersion) {
+                stacksKnowledge = knowledge;
+                stacksKnowledgeVersion = knowledge.getKnowledgeVersion();
+                stacksEmc = null;
+                stackValues.clear();
+                availableStacks.clear();
+
+                for (var item : snapshot.knownItems()) {
+                    var itemEmc = snapshot.getItemEmc(item);
+
+                    if (itemEmc > 0) {
+                        stackValues.put(item, itemEmc);
+                    }
+                }
+            }
+
+            if (snapshot.availableEmc().equals(stacksEmc)) {
+                return;
+            }
+
+            stacksEmc = snapshot.availableEmc();
+            var longEmc = stacksEmc.bitLength() < Long.SIZE ? stacksEmc.longValue() : -1;
+
+            for (var entry : Object2LongMaps.fastIterable(stackValues)) {
+                var amount = longEmc >= 0
+                        ? longEmc / entry.getLongValue()
+                        : snapshot.getTransmutableAmount(entry.getKey());
+                availableStacks.set(entry.getKey(), amount);
+            }
+        }
+
         @Override
         public Component getDescription() {
             return AppliedE.EMC_INTERFACE.get().getName();
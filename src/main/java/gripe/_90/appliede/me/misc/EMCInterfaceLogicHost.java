@@ -1,6 +1,9 @@
 package gripe._90.appliede.me.misc;
 
+import org.jetbrains.annotations.Nullable;
+
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.MenuType;
 import net.minecraft.world.level.block.entity.BlockEntity;
 
 import appeng.api.networking.IGridNode;
@@ -35,13 +38,26 @@ public interface EMCInterfaceLogicHost extends IConfigInvHost, ISubMenuHost, IUp
         return getInterfaceLogic().getUpgrades();
     }
 
+    default boolean canBridge() {
+        return false;
+    }
+
+    @Nullable
+    default IGridNode getBridgedNode() {
+        return null;
+    }
+
+    default MenuType<?> getMenuType() {
+        return AppliedE.EMC_INTERFACE_MENU.get();
+    }
+
     default void openMenu(Player player, MenuHostLocator locator) {
-        MenuOpener.open(AppliedE.EMC_INTERFACE_MENU.get(), player, locator);
+        MenuOpener.open(getMenuType(), player, locator);
     }
 
     @Override
     default void returnToMainMenu(Player player, ISubMenu subMenu) {
-        MenuOpener.returnTo(AppliedE.EMC_INTERFACE_MENU.get(), player, subMenu.getLocator());
+        MenuOpener.returnTo(getMenuType(), player, subMenu.getLocator());
     }
 
     IGridNodeListener<EMCInterfaceLogicHost> NODE_LISTENER = new IGridNodeListener<>() {
@@ -1,20 +1,14 @@
 package gripe._90.appliede.me.misc;
 
-import java.util.Objects;
-
 import org.jetbrains.annotations.NotNull;
 
 import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.neoforge.network.handling.IPayloadContext;
 
-import appeng.api.config.Actionable;
-import appeng.api.networking.security.IActionSource;
-import appeng.api.stacks.AEItemKey;
-
 import gripe._90.appliede.AppliedE;
-import gripe._90.appliede.me.service.KnowledgeService;
 import gripe._90.appliede.menu.TransmutationTerminalMenu;
 
 public class LearnAllItemsPacket implements CustomPacketPayload {
@@ -30,35 +24,7 @@ public class LearnAllItemsPacket implements CustomPacketPayload {
                 return;
             }
 
-            var node = Objects.requireNonNull(menu.getHost().getActionableNode());
-            var storage = node.getGrid().getStorageService();
-            var knowledge = node.getGrid().getService(KnowledgeService.class);
-
-            if (knowledge.isTrackingPlayer(sender)) {
-                for (var key : storage.getCachedInventory().keySet()) {
-                    if (!(key instanceof AEItemKey item)) {
-                        continue;
-                    }
-
-                    if (!knowledge.getProviderFor(sender.getUUID()).get().hasKnowledge(item.toStack())) {
-                        continue;
-                    }
-
-                    var learned = knowledge
-                            .getStorage()
-                            .insertItem(
-                                    item,
-                                    1,
-                                    Actionable.MODULATE,
-                                    IActionSource.ofPlayer(sender),
-                                    true,
-                                    true,
-                                    menu::showLearned);
-
-                    var me = storage.getInventory();
-                    me.extract(item, learned, Actionable.MODULATE, IActionSource.ofMachine(menu.getHost()));
-                }
-            }
+            menu.startLearnAll((ServerPlayer) sender);
         });
     }
 
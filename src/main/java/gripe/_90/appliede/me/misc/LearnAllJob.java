@@ -0,0 +1,122 @@
+package gripe._90.appliede.me.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.security.IActionHost;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
+
+import gripe._90.appliede.me.service.EMCStorage;
+import gripe._90.appliede.me.service.KnowledgeService;
+
+import moze_intel.projecte.api.proxy.IEMCProxy;
+
+public class LearnAllJob {
+    private static final long NANOS_PER_TICK = 2_000_000;
+    private static final int MAX_ITEMS_PER_TICK = 64;
+
+    private final ServerPlayer player;
+    private final IActionHost host;
+    private final List<AEItemKey> items = new ArrayList<>();
+
+    private EMCStorage learningStorage;
+    private int next;
+    private int learned;
+
+    public LearnAllJob(ServerPlayer player, IActionHost host, IGridNode node) {
+        this.player = player;
+        this.host = host;
+
+        for (var key : node.getGrid().getStorageService().getCachedInventory().keySet()) {
+            if (key instanceof AEItemKey item) {
+                items.add(item);
+            }
+        }
+    }
+
+    // returns whether the job has finished, whether by running out of items or by losing access to the grid
+    public boolean tick() {
+        var node = host.getActionableNode();
+
+        if (node == null || !node.isActive()) {
+            finish();
+            return true;
+        }
+
+        var knowledge = node.getGrid().getService(KnowledgeService.class).resolve();
+
+        if (!knowledge.isTrackingPlayer(player)) {
+            finish();
+            return true;
+        }
+
+        var provider = knowledge.getProviderFor(player.getUUID()).get();
+        var storage = node.getGrid().getStorageService().getInventory();
+        var source = IActionSource.ofMachine(host);
+        var extracted = new KeyCounter();
+        var deadline = System.nanoTime() + NANOS_PER_TICK;
+
+        // the deadline covers the network extractions too, and the batch size bounds the learning and returns after it
+        while (next < items.size() && extracted.size() < MAX_ITEMS_PER_TICK && System.nanoTime() < deadline) {
+            var item = items.get(next++);
+            var stack = item.toStack();
+
+            // take items out before learning them, since the inventory snapshot may no longer match the network's stock
+            if (!provider.hasKnowledge(stack)
+                    && IEMCProxy.INSTANCE.hasValue(stack)
+                    && storage.extract(item, 1, Actionable.MODULATE, source) > 0) {
+                extracted.add(item, 1);
+            }
+        }
+
+        if (!extracted.isEmpty()) {
+            var inserted = knowledge.getStorage().learnItems(extracted, IActionSource.ofPlayer(player));
+
+            for (var entry : extracted) {
+                var leftover = entry.getLongValue() - inserted.get(entry.getKey());
+
+                if (leftover > 0) {
+                    var returned = storage.insert(entry.getKey(), leftover, Actionable.MODULATE, source);
+
+                    if (returned < leftover && entry.getKey() instanceof AEItemKey item) {
+                        player.getInventory().placeItemAndDrop(item.toStack((int) (leftover - returned)));
+                    }
+                }
+            }
+
+            if (!inserted.isEmpty()) {
+                learningStorage = knowledge.getStorage();
+                learned += inserted.size();
+            }
+        }
+
+        if (next >= items.size()) {
+            finish();
+            return true;
+        }
+
+        return false;
+    }
+
+    public void finish() {
+        // knowledge is added silently while the job runs, so hand the player all of it in one go at the end
+        if (learningStorage != null) {
+            learningStorage.syncKnowledge(player);
+            learningStorage = null;
+        }
+    }
+
+    public int getProgress() {
+        return items.isEmpty() ? 100 : (int) ((long) next * 100 / items.size());
+    }
+
+    public int getLearned() {
+        return learned;
+    }
+}
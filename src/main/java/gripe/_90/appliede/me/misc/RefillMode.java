@@ -0,0 +1,30 @@
+package gripe._90.appliede.me.misc;
+
+public enum RefillMode {
+    EXACT,
+    HALF,
+    EMPTY;
+
+    public boolean shouldRefill(long stored, long target) {
+        return switch (this) {
+            case EXACT -> stored < target;
+            case HALF -> stored <= target / 2;
+            case EMPTY -> stored <= 0;
+        };
+    }
+
+    public static RefillMode fromName(String name) {
+        // saved data may come from a newer version or be corrupt, neither of which should stop the host from loading
+        for (var mode : values()) {
+            if (mode.name().equals(name)) {
+                return mode;
+            }
+        }
+
+        return EXACT;
+    }
+
+    public RefillMode next() {
+        return values()[(ordinal() + 1) % values().length];
+    }
+}
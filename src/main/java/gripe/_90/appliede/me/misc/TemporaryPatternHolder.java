@@ -0,0 +1,5 @@
+package gripe._90.appliede.me.misc;
+
+public interface TemporaryPatternHolder {
+    void appliede$holdTemporaryPattern(TransmutationPattern pattern);
+}
@@ -0,0 +1,7 @@
+package gripe._90.appliede.me.misc;
+
+import gripe._90.appliede.me.service.KnowledgeSnapshot;
+
+public interface TransmutableSimulationState {
+    void appliede$setKnowledge(KnowledgeSnapshot snapshot);
+}
@@ -68,7 +68,13 @@ public final class TransmutationPattern implements IPatternDetails {
         var currentTier = 1;
 
         while (totalEmc.divide(AppliedE.TIER_LIMIT).signum() == 1) {
-            inputs.add(new Input(totalEmc.remainder(AppliedE.TIER_LIMIT).longValue(), currentTier));
+            var remainder = totalEmc.remainder(AppliedE.TIER_LIMIT).longValue();
+
+            // don't make the crafting plan reserve empty lower tiers
+            if (remainder > 0) {
+                inputs.add(new Input(remainder, currentTier));
+            }
+
             totalEmc = totalEmc.divide(AppliedE.TIER_LIMIT);
             currentTier++;
         }
@@ -86,6 +92,11 @@ public final class TransmutationPattern implements IPatternDetails {
                         : new GenericStack(EMCKey.of(tier - 1), AppliedE.TIER_LIMIT.longValue()));
     }
 
+    public boolean isTemporary() {
+        // base item patterns and tier patterns are always provided, so only larger item patterns come and go
+        return item != null && amount > 1;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof TransmutationPattern pattern && pattern.definition.equals(definition);
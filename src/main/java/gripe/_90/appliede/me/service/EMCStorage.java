@@ -5,8 +5,15 @@ import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongUnaryOperator;
+
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
 
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
@@ -32,7 +39,10 @@ import moze_intel.projecte.api.capabilities.IKnowledgeProvider;
 import moze_intel.projecte.api.proxy.IEMCProxy;
 
 public final class EMCStorage implements MEStorage {
+    private static final int MAX_KNOWLEDGE_CHANGE_PACKETS = 32;
+
     private final KnowledgeService service;
+    private final Map<IKnowledgeProvider, PendingKnowledge> pendingKnowledge = new LinkedHashMap<>();
     private int highestTier = 1;
 
     EMCStorage(KnowledgeService service) {
@@ -157,29 +167,10 @@ public final class EMCStorage implements MEStorage {
             boolean mayLearn,
             boolean consumePower,
             Runnable onLearn) {
-        if (amount <= 0 || service.getProviders().isEmpty()) {
-            return 0;
-        }
-
-        if (!mayLearn && !service.getKnownItems().contains(what) || !IEMCProxy.INSTANCE.hasValue(what.toStack())) {
+        if (amount <= 0 || !mayInsertItem(what, source, mayLearn)) {
             return 0;
         }
 
-        var player = source.player().orElse(null);
-        var machine = source.machine().orElse(null);
-        var playerProvider = player != null ? service.getProviderFor(player) : null;
-        var machineProvider = machine != null ? service.getProviderFor(machine) : null;
-
-        if (mayLearn) {
-            if (player != null && playerProvider == null) {
-                return 0;
-            }
-
-            if (machine != null && machineProvider == null) {
-                return 0;
-            }
-        }
-
         if (mode == Actionable.MODULATE) {
             var itemEmc = BigInteger.valueOf(IEMCProxy.INSTANCE.getSellValue(what.toStack()));
             var totalEmc = itemEmc.multiply(BigInteger.valueOf(amount));
@@ -198,17 +189,7 @@ public final class EMCStorage implements MEStorage {
             service.syncEmc();
 
             if (mayLearn) {
-                if (player != null && !playerProvider.get().hasKnowledge(what.toStack())) {
-                    addKnowledge(what, playerProvider.get(), player);
-                    onLearn.run();
-                }
-
-                if (machine != null && !machineProvider.get().hasKnowledge(what.toStack())) {
-                    var node = Objects.requireNonNull(machine.getActionableNode());
-                    var owner = IPlayerRegistry.getConnected(node.getLevel().getServer(), node.getOwningPlayerId());
-                    addKnowledge(what, machineProvider.get(), owner);
-                    onLearn.run();
-                }
+                learnItem(what, source, onLearn, true);
             }
         }
 
@@ -219,6 +200,188 @@ public final class EMCStorage implements MEStorage {
         return insertItem(what, amount, mode, source, mayLearn, true, () -> {});
     }
 
+    public KeyCounter insertItems(KeyCounter items, IActionSource source, boolean mayLearn) {
+        return insertItems(items, source, mayLearn, true);
+    }
+
+    public KeyCounter learnItems(KeyCounter items, IActionSource source) {
+        // leaves telling the player about the new knowledge up to the caller, see syncKnowledge
+        return insertItems(items, source, true, false);
+    }
+
+    private KeyCounter insertItems(KeyCounter items, IActionSource source, boolean mayLearn, boolean announce) {
+        var inserted = new KeyCounter();
+        var sellValues = new Object2LongLinkedOpenHashMap<AEItemKey>();
+        var totalEmc = BigInteger.ZERO;
+
+        for (var entry : items) {
+            if (entry.getKey() instanceof AEItemKey item
+                    && entry.getLongValue() > 0
+                    && mayInsertItem(item, source, mayLearn)) {
+                var itemEmc = IEMCProxy.INSTANCE.getSellValue(item.toStack());
+
+                if (itemEmc > 0) {
+                    sellValues.put(item, itemEmc);
+                    totalEmc = totalEmc.add(
+                            BigInteger.valueOf(itemEmc).multiply(BigInteger.valueOf(entry.getLongValue())));
+                }
+            }
+        }
+
+        if (totalEmc.signum() == 0) {
+            return inserted;
+        }
+
+        // settle power for the whole batch at once, only letting through as many items as the grid can afford
+        var affordableEmc = getAffordableEmc(totalEmc);
+        var creditedEmc = BigInteger.ZERO;
+
+        for (var entry : sellValues.object2LongEntrySet()) {
+            var itemEmc = BigInteger.valueOf(entry.getLongValue());
+            var amount = affordableEmc
+                    .subtract(creditedEmc)
+                    .divide(itemEmc)
+                    .min(BigInteger.valueOf(items.get(entry.getKey())))
+                    .longValue();
+
+            if (amount > 0) {
+                inserted.add(entry.getKey(), amount);
+                creditedEmc = creditedEmc.add(itemEmc.multiply(BigInteger.valueOf(amount)));
+            }
+        }
+
+        if (creditedEmc.signum() == 0) {
+            return inserted;
+        }
+
+        expendPower(creditedEmc);
+
+        var providers = new ArrayList<>(service.getProviders());
+        Collections.shuffle(providers);
+        distributeEmc(creditedEmc, providers);
+        service.syncEmc();
+
+        if (mayLearn) {
+            for (var item : inserted.keySet()) {
+                learnItem((AEItemKey) item, source, () -> {}, announce);
+            }
+        }
+
+        return inserted;
+    }
+
+    public boolean mayInsertItem(AEItemKey what, IActionSource source, boolean mayLearn) {
+        if (service.getProviders().isEmpty()) {
+            return false;
+        }
+
+        if (!mayLearn && !service.getKnownItems().contains(what) || !IEMCProxy.INSTANCE.hasValue(what.toStack())) {
+            return false;
+        }
+
+        if (mayLearn) {
+            if (source.player().isPresent() && service.getProviderFor(source.player().get()) == null) {
+                return false;
+            }
+
+            if (source.machine().isPresent() && service.getProviderFor(source.machine().get()) == null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void learnItem(AEItemKey what, IActionSource source, Runnable onLearn, boolean announce) {
+        var player = source.player().orElse(null);
+        var machine = source.machine().orElse(null);
+
+        if (player != null) {
+            var provider = service.getProviderFor(player).get();
+
+            if (queueKnowledge(what, provider, player, announce)) {
+                onLearn.run();
+            }
+        }
+
+        if (machine != null) {
+            var provider = service.getProviderFor(machine).get();
+            var node = Objects.requireNonNull(machine.getActionableNode());
+            var owner = IPlayerRegistry.getConnected(node.getLevel().getServer(), node.getOwningPlayerId());
+
+            if (queueKnowledge(what, provider, owner, announce)) {
+                onLearn.run();
+            }
+        }
+    }
+
+    private boolean queueKnowledge(AEItemKey what, IKnowledgeProvider provider, Player player, boolean announce) {
+        var info = ItemInfo.fromStack(what.toStack());
+
+        if (provider.hasKnowledge(info)) {
+            return false;
+        }
+
+        var pending = pendingKnowledge.computeIfAbsent(provider, p -> new PendingKnowledge());
+
+        if (player != null) {
+            pending.player = player;
+        }
+
+        if (!pending.learned.add(info)) {
+            return false;
+        }
+
+        if (announce) {
+            pending.announced.add(info);
+        }
+
+        return true;
+    }
+
+    public void syncKnowledge(ServerPlayer player) {
+        // sends the player's entire knowledge over once everything queued so far has been committed
+        var provider = service.getProviderFor(player).get();
+        var pending = pendingKnowledge.computeIfAbsent(provider, p -> new PendingKnowledge());
+        pending.player = player;
+        pending.fullSync = true;
+
+        // without a module left on the grid, nothing is guaranteed to tick and commit the queue later on
+        if (!service.hasActiveModule()) {
+            commitKnowledge();
+        }
+    }
+
+    void commitKnowledge() {
+        if (pendingKnowledge.isEmpty()) {
+            return;
+        }
+
+        var committed = new LinkedHashMap<>(pendingKnowledge);
+        pendingKnowledge.clear();
+
+        // ProjectE fires a knowledge change event per item added, so only let grids react once the batch is in
+        KnowledgeIndex.deferChanges(() -> committed.forEach((provider, pending) -> {
+            for (var info : pending.learned) {
+                provider.addKnowledge(info);
+            }
+        }));
+
+        committed.forEach((provider, pending) -> {
+            if (!(pending.player instanceof ServerPlayer player) || player.hasDisconnected()) {
+                return;
+            }
+
+            if (pending.fullSync || pending.announced.size() > MAX_KNOWLEDGE_CHANGE_PACKETS) {
+                provider.sync(player);
+            } else {
+                for (var info : pending.announced) {
+                    provider.syncKnowledgeChange(player, info, true);
+                }
+            }
+        });
+    }
+
     public long extractItem(AEItemKey what, long amount, Actionable mode, IActionSource source, boolean skipStored) {
         if (source.player().isPresent()
                 && !(source.player().get().containerMenu instanceof TransmutationTerminalMenu)) {
@@ -235,6 +398,94 @@ public final class EMCStorage implements MEStorage {
             return 0;
         }
 
+        return extractItem(what, amount, mode, getProvidersForExtraction(source));
+    }
+
+    public long exportItem(AEItemKey what, long amount, IActionSource source, LongUnaryOperator target) {
+        var extracted = extractItem(what, amount, Actionable.MODULATE, source, true);
+
+        if (extracted == 0) {
+            return 0;
+        }
+
+        var accepted = Math.clamp(target.applyAsLong(extracted), 0, extracted);
+
+        // refund anything the target turned down at the value it was withdrawn for, rather than its sell value
+        if (accepted < extracted) {
+            var itemEmc = BigInteger.valueOf(IEMCProxy.INSTANCE.getValue(what.toStack()));
+            var providers = new ArrayList<>(service.getProviders());
+            Collections.shuffle(providers);
+            distributeEmc(itemEmc.multiply(BigInteger.valueOf(extracted - accepted)), providers);
+            service.syncEmc();
+        }
+
+        return accepted;
+    }
+
+    public KeyCounter extractItems(KeyCounter items, IActionSource source) {
+        var extracted = new KeyCounter();
+        var providers = getProvidersForExtraction(source);
+
+        if (providers.isEmpty()) {
+            return extracted;
+        }
+
+        var knownItems = service.getKnownItems();
+        var values = new Object2LongLinkedOpenHashMap<AEItemKey>();
+        var totalEmc = BigInteger.ZERO;
+
+        for (var entry : items) {
+            if (entry.getKey() instanceof AEItemKey item && entry.getLongValue() > 0 && knownItems.contains(item)) {
+                var itemEmc = IEMCProxy.INSTANCE.getValue(item.toStack());
+
+                if (itemEmc > 0) {
+                    values.put(item, itemEmc);
+                    totalEmc = totalEmc.add(
+                            BigInteger.valueOf(itemEmc).multiply(BigInteger.valueOf(entry.getLongValue())));
+                }
+            }
+        }
+
+        if (totalEmc.signum() == 0) {
+            return extracted;
+        }
+
+        // settle EMC and power for the whole batch at once, handing out items in order until either runs out
+        var budget = getAffordableEmc(totalEmc.min(getAvailableEmc(providers)));
+        var spentEmc = BigInteger.ZERO;
+
+        for (var entry : values.object2LongEntrySet()) {
+            var itemEmc = BigInteger.valueOf(entry.getLongValue());
+            var amount = budget.subtract(spentEmc)
+                    .divide(itemEmc)
+                    .min(BigInteger.valueOf(items.get(entry.getKey())))
+                    .longValue();
+
+            if (amount > 0) {
+                extracted.add(entry.getKey(), amount);
+                spentEmc = spentEmc.add(itemEmc.multiply(BigInteger.valueOf(amount)));
+            }
+        }
+
+        if (spentEmc.signum() > 0) {
+            expendPower(spentEmc);
+            withdrawEmc(spentEmc, providers);
+            service.syncEmc();
+        }
+
+        return extracted;
+    }
+
+    public long extractCraftingItem(AEItemKey what, long amount, Actionable mode) {
+        if (amount <= 0 || !service.getKnownItems().contains(what)) {
+            return 0;
+        }
+
+        // crafting jobs draw from every provider regardless of who submitted them
+        return extractItem(what, amount, mode, new ArrayList<>(service.getProviders()));
+    }
+
+    private long extractItem(AEItemKey what, long amount, Actionable mode, List<IKnowledgeProvider> providers) {
         var itemEmc = BigInteger.valueOf(IEMCProxy.INSTANCE.getValue(what.toStack()));
 
         if (itemEmc.signum() <= 0) {
@@ -242,12 +493,7 @@ public final class EMCStorage implements MEStorage {
         }
 
         var totalEmc = itemEmc.multiply(BigInteger.valueOf(amount));
-
-        var providers = getProvidersForExtraction(source);
-        var availableEmc = totalEmc.min(
-                providers.equals(service.getProviders())
-                        ? service.getEmc()
-                        : providers.getFirst().getEmc());
+        var availableEmc = totalEmc.min(getAvailableEmc(providers));
 
         amount = availableEmc.divide(itemEmc).longValue();
 
@@ -256,44 +502,56 @@ public final class EMCStorage implements MEStorage {
         }
 
         if (mode == Actionable.MODULATE) {
-            amount = getAmountAfterPowerExpenditure(availableEmc, itemEmc);
+            amount = getAffordableEmc(itemEmc.multiply(BigInteger.valueOf(amount)))
+                    .divide(itemEmc)
+                    .longValue();
 
             if (amount == 0) {
                 return 0;
             }
 
-            var withdrawn = BigInteger.ZERO;
+            // only take what the extracted items are actually worth, rather than everything that was available
+            var spentEmc = itemEmc.multiply(BigInteger.valueOf(amount));
+            expendPower(spentEmc);
+            withdrawEmc(spentEmc, providers);
+            service.syncEmc();
+        }
+
+        return amount;
+    }
 
-            while (!providers.isEmpty() && withdrawn.compareTo(availableEmc) < 0) {
-                Collections.shuffle(providers);
+    private void withdrawEmc(BigInteger totalEmc, List<IKnowledgeProvider> providers) {
+        var withdrawn = BigInteger.ZERO;
 
-                var toWithdraw = availableEmc.subtract(withdrawn);
-                var divisor = BigInteger.valueOf(providers.size());
-                var quotient = toWithdraw.divide(divisor);
-                var remainder = toWithdraw.remainder(divisor).longValue();
+        while (!providers.isEmpty() && withdrawn.compareTo(totalEmc) < 0) {
+            Collections.shuffle(providers);
 
-                for (var p = 0; p < providers.size(); p++) {
-                    var provider = providers.get(p);
+            var toWithdraw = totalEmc.subtract(withdrawn);
+            var divisor = BigInteger.valueOf(providers.size());
+            var quotient = toWithdraw.divide(divisor);
+            var remainder = toWithdraw.remainder(divisor).longValue();
 
-                    var currentEmc = provider.getEmc();
-                    var toWithdrawFrom = quotient.add(p < remainder ? BigInteger.ONE : BigInteger.ZERO);
+            for (var p = 0; p < providers.size(); p++) {
+                var provider = providers.get(p);
 
-                    if (currentEmc.compareTo(toWithdrawFrom) <= 0) {
-                        provider.setEmc(BigInteger.ZERO);
-                        withdrawn = withdrawn.add(currentEmc);
-                        // provider exhausted, remove from current list to re-extract deficit from remaining providers
-                        providers.remove(provider);
-                    } else {
-                        provider.setEmc(currentEmc.subtract(toWithdrawFrom));
-                        withdrawn = withdrawn.add(toWithdrawFrom);
-                    }
+                var currentEmc = provider.getEmc();
+                var toWithdrawFrom = quotient.add(p < remainder ? BigInteger.ONE : BigInteger.ZERO);
+
+                if (currentEmc.compareTo(toWithdrawFrom) <= 0) {
+                    provider.setEmc(BigInteger.ZERO);
+                    withdrawn = withdrawn.add(currentEmc);
+                    // provider exhausted, remove from current list to re-extract deficit from remaining providers
+                    providers.remove(provider);
+                } else {
+                    provider.setEmc(currentEmc.subtract(toWithdrawFrom));
+                    withdrawn = withdrawn.add(toWithdrawFrom);
                 }
             }
-
-            service.syncEmc();
         }
+    }
 
-        return amount;
+    private BigInteger getAvailableEmc(List<IKnowledgeProvider> providers) {
+        return providers.equals(service.getProviders()) ? service.getEmc() : providers.getFirst().getEmc();
     }
 
     private void distributeEmc(BigInteger totalEmc, ArrayList<IKnowledgeProvider> providers) {
@@ -321,11 +579,41 @@ public final class EMCStorage implements MEStorage {
         return providers;
     }
 
-    private long getAmountAfterPowerExpenditure(BigInteger maxEmc, BigInteger itemEmc) {
-        var energyService = service.getGrid().getEnergyService();
-        var multiplier = BigDecimal.valueOf(PowerMultiplier.CONFIG.multiplier)
+    private BigDecimal getPowerPerEmc() {
+        return BigDecimal.valueOf(PowerMultiplier.CONFIG.multiplier)
                 .multiply(BigDecimal.valueOf(AppliedEConfig.CONFIG.getTransmutationPowerMultiplier()))
                 .divide(BigDecimal.valueOf(EMCKeyType.TYPE.getAmountPerOperation()), 4, RoundingMode.HALF_UP);
+    }
+
+    private BigInteger getAffordableEmc(BigInteger maxEmc) {
+        var multiplier = getPowerPerEmc();
+
+        if (multiplier.signum() == 0) {
+            return maxEmc;
+        }
+
+        var energyService = service.getGrid().getEnergyService();
+        var toExpend = new BigDecimal(maxEmc).multiply(multiplier).min(BigDecimal.valueOf(Double.MAX_VALUE));
+        var available = energyService.extractAEPower(toExpend.doubleValue(), Actionable.SIMULATE, PowerMultiplier.ONE);
+        return BigDecimal.valueOf(available)
+                .min(toExpend)
+                .divide(multiplier, RoundingMode.DOWN)
+                .toBigInteger()
+                .min(maxEmc);
+    }
+
+    private void expendPower(BigInteger emc) {
+        var toExpend = new BigDecimal(emc).multiply(getPowerPerEmc()).min(BigDecimal.valueOf(Double.MAX_VALUE));
+
+        if (toExpend.signum() > 0) {
+            var energyService = service.getGrid().getEnergyService();
+            energyService.extractAEPower(toExpend.doubleValue(), Actionable.MODULATE, PowerMultiplier.ONE);
+        }
+    }
+
+    private long getAmountAfterPowerExpenditure(BigInteger maxEmc, BigInteger itemEmc) {
+        var energyService = service.getGrid().getEnergyService();
+        var multiplier = getPowerPerEmc();
         var toExpend = new BigDecimal(maxEmc).multiply(multiplier).min(BigDecimal.valueOf(Double.MAX_VALUE));
 
         var available = energyService.extractAEPower(toExpend.doubleValue(), Actionable.SIMULATE, PowerMultiplier.ONE);
@@ -344,15 +632,6 @@ public final class EMCStorage implements MEStorage {
         return amount;
     }
 
-    private void addKnowledge(AEItemKey what, IKnowledgeProvider provider, Player player) {
-        var stack = what.toStack();
-        provider.addKnowledge(stack);
-
-        if (player instanceof ServerPlayer serverPlayer) {
-            provider.syncKnowledgeChange(serverPlayer, ItemInfo.fromStack(stack), true);
-        }
-    }
-
     int getHighestTier() {
         return highestTier;
     }
@@ -361,4 +640,11 @@ public final class EMCStorage implements MEStorage {
     public Component getDescription() {
         return AppliedE.EMC_MODULE.get().getDescription();
     }
+
+    private static final class PendingKnowledge {
+        private final Set<ItemInfo> learned = new LinkedHashSet<>();
+        private final Set<ItemInfo> announced = new LinkedHashSet<>();
+        private Player player;
+        private boolean fullSync;
+    }
 }
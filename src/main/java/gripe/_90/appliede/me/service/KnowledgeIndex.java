@@ -0,0 +1,134 @@
+package gripe._90.appliede.me.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.OnDatapackSyncEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+import appeng.api.stacks.AEItemKey;
+
+import moze_intel.projecte.api.capabilities.IKnowledgeProvider;
+import moze_intel.projecte.api.event.PlayerKnowledgeChangeEvent;
+import moze_intel.projecte.api.proxy.IEMCProxy;
+
+// known items indexed per set of tracked players, shared between every grid tracking that same set of players
+record KnowledgeIndex(Set<AEItemKey> knownItems, Object2LongMap<AEItemKey> itemEmc) {
+    private static final Map<Set<UUID>, KnowledgeIndex> INDICES = new ConcurrentHashMap<>();
+    private static final Set<KnowledgeService> SERVICES = Collections.newSetFromMap(new WeakHashMap<>());
+    private static final Set<UUID> DEFERRED_CHANGES = new LinkedHashSet<>();
+    private static boolean deferringChanges;
+
+    static {
+        NeoForge.EVENT_BUS.addListener(PlayerKnowledgeChangeEvent.class, event -> {
+            if (deferringChanges) {
+                DEFERRED_CHANGES.add(event.getPlayerUUID());
+            } else {
+                onKnowledgeChanged(event.getPlayerUUID());
+            }
+        });
+        NeoForge.EVENT_BUS.addListener(OnDatapackSyncEvent.class, event -> {
+            if (event.getPlayer() == null) {
+                INDICES.clear();
+                List.copyOf(SERVICES).forEach(service -> service.onKnowledgeChanged(true));
+            }
+        });
+        NeoForge.EVENT_BUS.addListener(ServerStoppedEvent.class, event -> INDICES.clear());
+    }
+
+    private static void onKnowledgeChanged(UUID uuid) {
+        INDICES.keySet().removeIf(players -> players.contains(uuid));
+
+        for (var service : List.copyOf(SERVICES)) {
+            if (service.isTrackingPlayer(uuid)) {
+                INDICES.remove(service.getTrackedPlayers());
+                service.onKnowledgeChanged(false);
+            }
+        }
+    }
+
+    static void deferChanges(Runnable changes) {
+        // collapses every knowledge change event fired while running the given changes into one per player
+        if (deferringChanges) {
+            changes.run();
+            return;
+        }
+
+        deferringChanges = true;
+
+        try {
+            changes.run();
+        } finally {
+            deferringChanges = false;
+            var changed = List.copyOf(DEFERRED_CHANGES);
+            DEFERRED_CHANGES.clear();
+            changed.forEach(KnowledgeIndex::onKnowledgeChanged);
+        }
+    }
+
+    static void track(KnowledgeService service) {
+        SERVICES.add(service);
+    }
+
+    static KnowledgeIndex get(Set<UUID> players, Supplier<List<IKnowledgeProvider>> providers) {
+        var key = Set.copyOf(players);
+        var index = INDICES.get(key);
+
+        if (index == null) {
+            // grids change which players they track as modules come and go, so drop sets no live grid tracks any more
+            pruneUntracked();
+            index = build(providers.get());
+            INDICES.put(key, index);
+        }
+
+        return index;
+    }
+
+    private static void pruneUntracked() {
+        var tracked = new HashSet<Set<UUID>>();
+
+        for (var service : List.copyOf(SERVICES)) {
+            tracked.add(service.getTrackedPlayers());
+        }
+
+        INDICES.keySet().retainAll(tracked);
+    }
+
+    private static KnowledgeIndex build(List<IKnowledgeProvider> providers) {
+        // both collections are only ever replaced rather than mutated, so snapshots may share them across threads
+        var knownItems = new HashSet<AEItemKey>();
+        var itemEmc = new Object2LongOpenHashMap<AEItemKey>();
+
+        for (var provider : providers) {
+            for (var item : provider.getKnowledge()) {
+                var emc = IEMCProxy.INSTANCE.getValue(item);
+
+                if (emc <= 0) {
+                    continue;
+                }
+
+                var key = AEItemKey.of(item.createStack());
+
+                if (key != null) {
+                    knownItems.add(key);
+                    itemEmc.put(key, emc);
+                }
+            }
+        }
+
+        return new KnowledgeIndex(Collections.unmodifiableSet(knownItems), Object2LongMaps.unmodifiable(itemEmc));
+    }
+}
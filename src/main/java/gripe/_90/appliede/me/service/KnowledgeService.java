@@ -4,19 +4,23 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Supplier;
 
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.entity.player.Player;
-import net.neoforged.neoforge.common.NeoForge;
-import net.neoforged.neoforge.event.OnDatapackSyncEvent;
 
 import appeng.api.crafting.IPatternDetails;
 import appeng.api.networking.IGrid;
@@ -32,46 +36,56 @@ import appeng.api.storage.MEStorage;
 import appeng.me.storage.NullInventory;
 
 import gripe._90.appliede.AppliedEConfig;
+import gripe._90.appliede.me.misc.EMCInterfaceLogic;
+import gripe._90.appliede.me.misc.EMCInterfaceLogicHost;
 import gripe._90.appliede.me.misc.TransmutationPattern;
 import gripe._90.appliede.part.EMCModulePart;
 
 import moze_intel.projecte.api.capabilities.IKnowledgeProvider;
-import moze_intel.projecte.api.event.PlayerKnowledgeChangeEvent;
-import moze_intel.projecte.api.proxy.IEMCProxy;
 import moze_intel.projecte.api.proxy.ITransmutationProxy;
 
 public class KnowledgeService implements IGridService, IGridServiceProvider {
     private static final int TICKS_PER_SYNC = AppliedEConfig.CONFIG.getSyncThrottleInterval();
 
     private final List<IManagedGridNode> moduleNodes = new ArrayList<>();
+    private final Set<EMCInterfaceLogic> bridges = new LinkedHashSet<>();
     private final Map<UUID, Supplier<IKnowledgeProvider>> providers = new HashMap<>();
     private final EMCStorage storage = new EMCStorage(this);
-    private final List<IPatternDetails> temporaryPatterns = new ArrayList<>();
+    private final Object2IntLinkedOpenHashMap<IPatternDetails> temporaryPatterns = new Object2IntLinkedOpenHashMap<>();
+    private final Queue<IPatternDetails> pendingTemporaryPatterns = new ConcurrentLinkedQueue<>();
+    private final Queue<IPatternDetails> releasedTemporaryPatterns = new ConcurrentLinkedQueue<>();
+    private final Map<PatternKey, TransmutationPattern> patternCache = new ConcurrentHashMap<>();
     private final TeamProjectEHandler.Proxy tpeHandler = new TeamProjectEHandler.Proxy();
 
     private final IGrid grid;
     private Set<AEItemKey> knownItemCache;
+    private Object2LongMap<AEItemKey> itemEmcCache;
+    private Set<IPatternDetails> basePatterns;
+    private int basePatternsVersion;
+    private int basePatternsTier;
     private boolean needsSync;
     private int ticksSinceLastSync;
+    private int knowledgeVersion;
 
     public KnowledgeService(IGrid grid) {
         this.grid = grid;
-        NeoForge.EVENT_BUS.addListener(PlayerKnowledgeChangeEvent.class, event -> {
-            knownItemCache = null;
-            updatePatterns();
-        });
-        NeoForge.EVENT_BUS.addListener(OnDatapackSyncEvent.class, event -> {
-            if (event.getPlayer() == null) {
-                knownItemCache = null;
-                updatePatterns();
-            }
-        });
+        KnowledgeIndex.track(this);
+    }
+
+    void onKnowledgeChanged(boolean reloaded) {
+        invalidateKnowledge();
+
+        if (reloaded) {
+            patternCache.clear();
+        }
+
+        updatePatterns();
     }
 
     @Override
     public void addNode(IGridNode gridNode, @Nullable CompoundTag savedData) {
         if (gridNode.getOwner() instanceof EMCModulePart module) {
-            knownItemCache = null;
+            invalidateKnowledge();
             moduleNodes.add(module.getMainNode());
             var uuid = gridNode.getOwningPlayerProfileId();
 
@@ -81,12 +95,22 @@ public class KnowledgeService implements IGridService, IGridServiceProvider {
 
             updatePatterns();
         }
+
+        if (gridNode.getOwner() instanceof EMCInterfaceLogicHost host && host.getInterfaceLogic().isBridging()) {
+            bridges.add(host.getInterfaceLogic());
+        }
     }
 
     @Override
     public void removeNode(IGridNode gridNode) {
+        if (gridNode.getOwner() instanceof EMCInterfaceLogicHost host) {
+            bridges.remove(host.getInterfaceLogic());
+        }
+
         if (gridNode.getOwner() instanceof EMCModulePart module) {
-            knownItemCache = null;
+            // items may already have been turned into EMC for queued knowledge, and a torn-down grid never ticks again
+            storage.commitKnowledge();
+            invalidateKnowledge();
             moduleNodes.remove(module.getMainNode());
             providers.clear();
             tpeHandler.clear();
@@ -110,6 +134,10 @@ public class KnowledgeService implements IGridService, IGridServiceProvider {
 
     @Override
     public void onServerStartTick() {
+        if (registerPendingPatterns()) {
+            updatePatterns();
+        }
+
         if (ticksSinceLastSync < TICKS_PER_SYNC) {
             ticksSinceLastSync++;
         }
@@ -121,6 +149,20 @@ public class KnowledgeService implements IGridService, IGridServiceProvider {
         }
     }
 
+    @Override
+    public void onServerEndTick() {
+        storage.commitKnowledge();
+    }
+
+    private void invalidateKnowledge() {
+        knownItemCache = null;
+        knowledgeVersion++;
+    }
+
+    public int getKnowledgeVersion() {
+        return knowledgeVersion;
+    }
+
     private void addProvider(UUID playerUUID) {
         providers.putIfAbsent(playerUUID, retrieveProvider(playerUUID));
     }
@@ -162,55 +204,157 @@ public class KnowledgeService implements IGridService, IGridServiceProvider {
                 : NullInventory.of();
     }
 
-    public Set<AEItemKey> getKnownItems() {
-        if (knownItemCache == null) {
-            knownItemCache = new HashSet<>();
+    public void addBridge(EMCInterfaceLogic bridge) {
+        bridges.add(bridge);
+    }
 
-            for (var provider : getProviders()) {
-                for (var item : provider.getKnowledge()) {
-                    if (!IEMCProxy.INSTANCE.hasValue(item)) {
-                        continue;
-                    }
+    public void removeBridge(EMCInterfaceLogic bridge) {
+        bridges.remove(bridge);
+    }
 
-                    var key = AEItemKey.of(item.createStack());
+    @Nullable
+    public EMCInterfaceLogic getActiveBridge() {
+        if (hasActiveModule()) {
+            return null;
+        }
 
-                    if (key != null) {
-                        knownItemCache.add(key);
-                    }
-                }
+        for (var bridge : bridges) {
+            var parent = bridge.getBridgedKnowledge();
+
+            // only ever one hop, as the parent must hold a module of its own rather than borrow through another bridge
+            if (parent != null && parent != this && parent.hasActiveModule()) {
+                return bridge;
             }
         }
 
+        return null;
+    }
+
+    public KnowledgeService resolve() {
+        // a subnet without a module of its own borrows the storage and known-item index of the grid it bridges to
+        var bridge = getActiveBridge();
+        var parent = bridge != null ? bridge.getBridgedKnowledge() : null;
+        return parent != null ? parent : this;
+    }
+
+    public boolean hasActiveModule() {
+        return !moduleNodes.isEmpty() && moduleNodes.getFirst().isActive();
+    }
+
+    public Set<AEItemKey> getKnownItems() {
+        if (knownItemCache == null) {
+            var index = KnowledgeIndex.get(providers.keySet(), this::getProviders);
+            knownItemCache = index.knownItems();
+            itemEmcCache = index.itemEmc();
+        }
+
         return knownItemCache;
     }
 
+    public KnowledgeSnapshot getSnapshot() {
+        var knownItems = getKnownItems();
+        return new KnowledgeSnapshot(knownItems, itemEmcCache, getEmc());
+    }
+
     public List<IPatternDetails> getPatterns(IManagedGridNode node) {
         if (!moduleNodes.isEmpty() && node.equals(moduleNodes.getFirst()) && node.isActive()) {
-            var patterns = new ArrayList<IPatternDetails>();
+            var patterns = new ArrayList<>(getBasePatterns());
+            patterns.addAll(temporaryPatterns.keySet());
+            return patterns;
+        }
+
+        return Collections.emptyList();
+    }
+
+    private Set<IPatternDetails> getBasePatterns() {
+        // only rebuilt when knowledge or the highest tier changes, not whenever a temporary pattern comes or goes
+        var highestTier = storage.getHighestTier();
+        var knownItems = getKnownItems();
+
+        if (basePatterns == null || basePatternsVersion != knowledgeVersion || basePatternsTier != highestTier) {
+            var patterns = new LinkedHashSet<IPatternDetails>();
 
-            for (var tier = storage.getHighestTier(); tier > 1; tier--) {
+            for (var tier = highestTier; tier > 1; tier--) {
                 patterns.add(new TransmutationPattern(tier));
             }
 
-            for (var item : getKnownItems()) {
-                patterns.add(new TransmutationPattern(item, 1));
+            for (var item : knownItems) {
+                patterns.add(getPattern(item, 1));
             }
 
-            patterns.addAll(temporaryPatterns);
-            return patterns;
+            // drop any base patterns left over from items which are no longer known
+            patternCache.keySet().removeIf(key -> key.amount() == 1 && !knownItems.contains(key.item()));
+            basePatterns = patterns;
+            basePatternsVersion = knowledgeVersion;
+            basePatternsTier = highestTier;
         }
 
-        return Collections.emptyList();
+        return basePatterns;
     }
 
-    public void addTemporaryPattern(IPatternDetails pattern) {
-        temporaryPatterns.add(pattern);
-        updatePatterns();
+    public TransmutationPattern getTemporaryPattern(AEItemKey item, long requestedAmount) {
+        var amount = requestedAmount;
+
+        if (AppliedEConfig.CONFIG.roundTemporaryPatterns() && amount > 1 && amount <= 1L << 62) {
+            amount = Long.highestOneBit(amount - 1) << 1;
+        }
+
+        return getPattern(item, amount);
     }
 
-    public void removeTemporaryPattern(IPatternDetails pattern) {
-        temporaryPatterns.remove(pattern);
-        updatePatterns();
+    private TransmutationPattern getPattern(AEItemKey item, long amount) {
+        return patternCache.computeIfAbsent(
+                new PatternKey(item, amount), key -> new TransmutationPattern(key.item(), key.amount()));
+    }
+
+    public void addTemporaryPattern(TransmutationPattern pattern) {
+        // called from AE2's crafting calculation threads, so defer registration to the next server tick
+        if (pattern.isTemporary()) {
+            pendingTemporaryPatterns.add(pattern);
+        }
+    }
+
+    public void removeTemporaryPattern(TransmutationPattern pattern) {
+        if (pattern.isTemporary()) {
+            releasedTemporaryPatterns.add(pattern);
+        }
+    }
+
+    private void evictPattern(IPatternDetails pattern) {
+        // no longer used by any calculation or job, so don't hold onto it for the rest of the grid's lifetime
+        if (pattern.getPrimaryOutput().what() instanceof AEItemKey item) {
+            patternCache.remove(new PatternKey(item, pattern.getPrimaryOutput().amount()), pattern);
+        }
+    }
+
+    private boolean registerPendingPatterns() {
+        // patterns are counted once per calculation or job holding them, and every holder is added before it is
+        // released, so taking all additions first never lets a count drop below zero
+        var changed = false;
+
+        for (var pattern = pendingTemporaryPatterns.poll();
+                pattern != null;
+                pattern = pendingTemporaryPatterns.poll()) {
+            if (temporaryPatterns.addTo(pattern, 1) == 0) {
+                changed = true;
+            }
+        }
+
+        for (var pattern = releasedTemporaryPatterns.poll();
+                pattern != null;
+                pattern = releasedTemporaryPatterns.poll()) {
+            var count = temporaryPatterns.getInt(pattern);
+
+            if (count > 1) {
+                temporaryPatterns.put(pattern, count - 1);
+            } else if (count == 1) {
+                temporaryPatterns.removeInt(pattern);
+                evictPattern(pattern);
+                changed = true;
+            }
+        }
+
+        return changed;
     }
 
     void updatePatterns() {
@@ -234,11 +378,20 @@ public class KnowledgeService implements IGridService, IGridServiceProvider {
     }
 
     public boolean isTrackingPlayer(Player player) {
-        var uuid = player.getUUID();
+        return isTrackingPlayer(player.getUUID());
+    }
+
+    boolean isTrackingPlayer(UUID uuid) {
         return providers.containsKey(uuid) || tpeHandler.isPlayerInTrackedTeam(uuid);
     }
 
+    Set<UUID> getTrackedPlayers() {
+        return Set.copyOf(providers.keySet());
+    }
+
     void syncEmc() {
         needsSync = true;
     }
+
+    private record PatternKey(AEItemKey item, long amount) {}
 }
@@ -0,0 +1,25 @@
+package gripe._90.appliede.me.service;
+
+import java.math.BigInteger;
+import java.util.Set;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+
+import appeng.api.stacks.AEItemKey;
+
+public record KnowledgeSnapshot(Set<AEItemKey> knownItems, Object2LongMap<AEItemKey> itemEmc, BigInteger availableEmc) {
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    public boolean isKnown(AEItemKey item) {
+        return knownItems.contains(item);
+    }
+
+    public long getItemEmc(AEItemKey item) {
+        return itemEmc.getLong(item);
+    }
+
+    public long getTransmutableAmount(AEItemKey item) {
+        var emc = getItemEmc(item);
+        return emc > 0 ? availableEmc.divide(BigInteger.valueOf(emc)).min(LONG_MAX).longValue() : 0;
+    }
+}
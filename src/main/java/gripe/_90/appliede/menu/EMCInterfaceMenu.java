@@ -1,35 +1,143 @@
 package gripe._90.appliede.menu;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.inventory.MenuType;
+import net.minecraft.world.inventory.Slot;
 
 import appeng.api.stacks.AEItemKey;
+import appeng.menu.SlotSemantic;
 import appeng.menu.SlotSemantics;
+import appeng.menu.guisync.GuiSync;
 import appeng.menu.implementations.InterfaceMenu;
 import appeng.menu.implementations.UpgradeableMenu;
 import appeng.menu.slot.AppEngSlot;
 import appeng.menu.slot.FakeSlot;
 
 import gripe._90.appliede.me.misc.EMCInterfaceLogicHost;
+import gripe._90.appliede.me.misc.RefillMode;
 
 public class EMCInterfaceMenu extends UpgradeableMenu<EMCInterfaceLogicHost> {
     private static final String ACTION_OPEN_SET_AMOUNT = InterfaceMenu.ACTION_OPEN_SET_AMOUNT;
+    private static final String ACTION_CYCLE_REFILL_MODE = "cycleRefillMode";
+    private static final String ACTION_SET_PAGE = "setPage";
+    private static final String ACTION_SET_BRIDGING = "setBridging";
+
+    public static final int SLOTS_PER_PAGE = 9;
+    public static final int MAX_PAGES = 4;
+
+    // larger interfaces show their slots a page at a time, each page laid out over the same row as the first
+    private static final List<SlotSemantic> CONFIG_PAGES = pageSemantics(SlotSemantics.CONFIG, "CONFIG");
+    private static final List<SlotSemantic> STORAGE_PAGES = pageSemantics(SlotSemantics.STORAGE, "STORAGE");
+
+    private final List<Slot> configSlots = new ArrayList<>();
+    private final int pages;
+
+    @GuiSync(20)
+    public RefillMode refillMode = RefillMode.EXACT;
+
+    @GuiSync(21)
+    public int page;
+
+    @GuiSync(22)
+    public boolean bridging;
 
     public EMCInterfaceMenu(MenuType<?> menuType, int id, Inventory playerInventory, EMCInterfaceLogicHost host) {
         super(menuType, id, playerInventory, host);
         registerClientAction(ACTION_OPEN_SET_AMOUNT, Integer.class, this::openSetAmountMenu);
+        registerClientAction(ACTION_CYCLE_REFILL_MODE, this::cycleRefillMode);
+        registerClientAction(ACTION_SET_PAGE, Integer.class, this::setPage);
+        registerClientAction(ACTION_SET_BRIDGING, Boolean.class, this::setBridging);
 
         var logic = host.getInterfaceLogic();
         var config = logic.getConfig().createMenuWrapper();
         var storage = logic.getStorage().createMenuWrapper();
+        pages = Math.min(Math.ceilDiv(config.size(), SLOTS_PER_PAGE), MAX_PAGES);
 
         for (var i = 0; i < config.size(); i++) {
-            addSlot(new FakeSlot(config, i), SlotSemantics.CONFIG);
+            var onPage = i / SLOTS_PER_PAGE;
+            var slot = new FakeSlot(config, i) {
+                @Override
+                public boolean isActive() {
+                    return page == onPage && super.isActive();
+                }
+            };
+
+            configSlots.add(slot);
+            addSlot(slot, CONFIG_PAGES.get(onPage));
         }
 
         for (var i = 0; i < storage.size(); i++) {
-            addSlot(new AppEngSlot(storage, i), SlotSemantics.STORAGE);
+            var onPage = i / SLOTS_PER_PAGE;
+            addSlot(
+                    new AppEngSlot(storage, i) {
+                        @Override
+                        public boolean isActive() {
+                            return page == onPage && super.isActive();
+                        }
+                    },
+                    STORAGE_PAGES.get(onPage));
+        }
+    }
+
+    private static List<SlotSemantic> pageSemantics(SlotSemantic firstPage, String name) {
+        var semantics = new ArrayList<SlotSemantic>();
+        semantics.add(firstPage);
+
+        for (var page = 2; page <= MAX_PAGES; page++) {
+            semantics.add(SlotSemantics.register("APPLIEDE_" + name + "_PAGE_" + page, false));
+        }
+
+        return List.copyOf(semantics);
+    }
+
+    public List<Slot> getConfigSlots() {
+        return configSlots;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    @Override
+    public void broadcastChanges() {
+        if (isServerSide()) {
+            refillMode = getHost().getInterfaceLogic().getRefillMode();
+            bridging = getHost().getInterfaceLogic().isBridging();
+        }
+
+        super.broadcastChanges();
+    }
+
+    public void cycleRefillMode() {
+        if (isClientSide()) {
+            sendClientAction(ACTION_CYCLE_REFILL_MODE);
+        } else {
+            var logic = getHost().getInterfaceLogic();
+            logic.setRefillMode(logic.getRefillMode().next());
+        }
+    }
+
+    public boolean canBridge() {
+        return getHost().canBridge();
+    }
+
+    public void setBridging(boolean bridging) {
+        if (isClientSide()) {
+            sendClientAction(ACTION_SET_BRIDGING, bridging);
+        } else if (canBridge()) {
+            getHost().getInterfaceLogic().setBridging(bridging);
+        }
+    }
+
+    public void setPage(int page) {
+        if (isClientSide()) {
+            sendClientAction(ACTION_SET_PAGE, page);
+        } else {
+            this.page = Math.floorMod(page, pages);
         }
     }
 
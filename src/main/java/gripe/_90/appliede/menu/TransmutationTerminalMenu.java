@@ -1,7 +1,10 @@
 package gripe._90.appliede.menu;
 
+import java.util.HashSet;
+
 import org.jetbrains.annotations.NotNull;
 
+import net.minecraft.core.component.DataComponents;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
@@ -13,6 +16,7 @@ import appeng.api.config.Actionable;
 import appeng.api.inventories.InternalInventory;
 import appeng.api.networking.security.IActionSource;
 import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
 import appeng.helpers.InventoryAction;
 import appeng.menu.SlotSemantic;
 import appeng.menu.SlotSemantics;
@@ -21,6 +25,7 @@ import appeng.menu.me.common.MEStorageMenu;
 import appeng.menu.slot.FakeSlot;
 
 import gripe._90.appliede.AppliedE;
+import gripe._90.appliede.me.misc.LearnAllJob;
 import gripe._90.appliede.me.misc.TransmutationTerminalHost;
 import gripe._90.appliede.me.service.KnowledgeService;
 
@@ -31,8 +36,7 @@ public class TransmutationTerminalMenu extends MEStorageMenu {
     protected static final SlotSemantic UNLEARN = SlotSemantics.register("APPLIEDE_UNLEARN", false);
 
     private static final String ACTION_SET_SHIFT = "setShiftDestination";
-    private static final String ACTION_HIDE_LEARNED = "hideLearnedText";
-    private static final String ACTION_HIDE_UNLEARNED = "hideUnlearnedText";
+    private static final String ACTION_TRANSMUTE_INVENTORY = "transmuteInventory";
 
     private final TransmutationTerminalHost host;
     private final Slot transmuteSlot = new FakeSlot(InternalInventory.empty(), 0);
@@ -41,11 +45,17 @@ public class TransmutationTerminalMenu extends MEStorageMenu {
     @GuiSync(1)
     public boolean shiftToTransmute;
 
+    // only ever counted up, letting the screen time its labels itself whenever either changes
     @GuiSync(2)
-    public int learnedLabelTicks;
+    public int learnedEvents;
 
     @GuiSync(3)
-    public int unlearnedLabelTicks;
+    public int unlearnedEvents;
+
+    @GuiSync(4)
+    public int learnAllProgress = -1;
+
+    private LearnAllJob learnAllJob;
 
     public TransmutationTerminalMenu(int id, Inventory ip, TransmutationTerminalHost host) {
         this(AppliedE.TRANSMUTATION_TERMINAL_MENU.get(), id, ip, host, true);
@@ -56,8 +66,7 @@ public class TransmutationTerminalMenu extends MEStorageMenu {
         super(menuType, id, ip, host, bindInventory);
         this.host = host;
         registerClientAction(ACTION_SET_SHIFT, Boolean.class, host::setShiftToTransmute);
-        registerClientAction(ACTION_HIDE_LEARNED, () -> learnedLabelTicks--);
-        registerClientAction(ACTION_HIDE_UNLEARNED, () -> unlearnedLabelTicks--);
+        registerClientAction(ACTION_TRANSMUTE_INVENTORY, this::transmuteInventory);
         addSlot(transmuteSlot, TRANSMUTE);
         addSlot(unlearnSlot, UNLEARN);
     }
@@ -78,7 +87,7 @@ public class TransmutationTerminalMenu extends MEStorageMenu {
             var node = host.getActionableNode();
 
             if (node != null) {
-                var knowledge = node.getGrid().getService(KnowledgeService.class);
+                var knowledge = node.getGrid().getService(KnowledgeService.class).resolve();
 
                 if (knowledge.isTrackingPlayer(player)) {
                     var provider = knowledge.getProviderFor(player.getUUID()).get();
@@ -86,8 +95,7 @@ public class TransmutationTerminalMenu extends MEStorageMenu {
                     if (provider.hasKnowledge(getCarried())) {
                         provider.removeKnowledge(getCarried());
                         provider.syncKnowledgeChange(player, ItemInfo.fromStack(getCarried()), false);
-                        unlearnedLabelTicks = 300;
-                        learnedLabelTicks = 0;
+                        unlearnedEvents++;
                         broadcastChanges();
                     }
                 }
@@ -103,7 +111,7 @@ public class TransmutationTerminalMenu extends MEStorageMenu {
                 return 0;
             }
 
-            var knowledge = node.getGrid().getService(KnowledgeService.class);
+            var knowledge = node.getGrid().getService(KnowledgeService.class).resolve();
 
             if (!knowledge.isTrackingPlayer(player)) {
                 return 0;
@@ -124,6 +132,74 @@ public class TransmutationTerminalMenu extends MEStorageMenu {
         return 0;
     }
 
+    private static boolean mayTransmuteFromInventory(ItemStack stack) {
+        // worn, enchanted or item-holding stacks are worth more than their EMC suggests, so leave those to the player
+        return !stack.isDamaged()
+                && !stack.isEnchanted()
+                && !stack.has(DataComponents.STORED_ENCHANTMENTS)
+                && !stack.has(DataComponents.CONTAINER)
+                && !stack.has(DataComponents.BUNDLE_CONTENTS);
+    }
+
+    public void transmuteInventory() {
+        if (isClientSide()) {
+            sendClientAction(ACTION_TRANSMUTE_INVENTORY);
+            return;
+        }
+
+        var node = host.getActionableNode();
+
+        if (node == null) {
+            return;
+        }
+
+        var knowledge = node.getGrid().getService(KnowledgeService.class).resolve();
+
+        if (!knowledge.isTrackingPlayer(getPlayer())) {
+            return;
+        }
+
+        // the hotbar, armour and offhand are left alone, only the main inventory is transmuted
+        var slots = getSlots(SlotSemantics.PLAYER_INVENTORY);
+        var provider = knowledge.getProviderFor(getPlayer().getUUID()).get();
+        var items = new KeyCounter();
+        var unknown = new HashSet<AEItemKey>();
+
+        for (var slot : slots) {
+            var item = mayTransmuteFromInventory(slot.getItem()) ? AEItemKey.of(slot.getItem()) : null;
+
+            if (item != null) {
+                items.add(item, slot.getItem().getCount());
+
+                if (!provider.hasKnowledge(slot.getItem())) {
+                    unknown.add(item);
+                }
+            }
+        }
+
+        var transmuted = knowledge.getStorage().insertItems(items, IActionSource.ofPlayer(getPlayer()), true);
+
+        if (transmuted.isEmpty()) {
+            return;
+        }
+
+        var learned = transmuted.keySet().stream().anyMatch(unknown::contains);
+
+        for (var slot : slots) {
+            var item = mayTransmuteFromInventory(slot.getItem()) ? AEItemKey.of(slot.getItem()) : null;
+            var amount = item != null ? (int) Math.min(transmuted.get(item), slot.getItem().getCount()) : 0;
+
+            if (amount > 0) {
+                slot.remove(amount);
+                transmuted.remove(item, amount);
+            }
+        }
+
+        if (learned) {
+            showLearned();
+        }
+    }
+
     public void setShiftToTransmute(boolean transmute) {
         if (isClientSide()) {
             sendClientAction(ACTION_SET_SHIFT, transmute);
@@ -134,20 +210,20 @@ public class TransmutationTerminalMenu extends MEStorageMenu {
     }
 
     public void showLearned() {
-        learnedLabelTicks = 300;
-        unlearnedLabelTicks = 0;
+        learnedEvents++;
         broadcastChanges();
     }
 
-    public void decrementLearnedTicks() {
-        if (isClientSide()) {
-            sendClientAction(ACTION_HIDE_LEARNED);
+    public void startLearnAll(ServerPlayer player) {
+        var node = host.getActionableNode();
+
+        if (learnAllJob != null || node == null) {
+            return;
         }
-    }
 
-    public void decrementUnlearnedTicks() {
-        if (isClientSide()) {
-            sendClientAction(ACTION_HIDE_UNLEARNED);
+        if (node.getGrid().getService(KnowledgeService.class).resolve().isTrackingPlayer(player)) {
+            learnAllJob = new LearnAllJob(player, host, node);
+            learnAllProgress = 0;
         }
     }
 
@@ -169,6 +245,19 @@ public class TransmutationTerminalMenu extends MEStorageMenu {
 
     @Override
     public void broadcastChanges() {
+        if (isServerSide() && learnAllJob != null) {
+            if (learnAllJob.tick()) {
+                if (learnAllJob.getLearned() > 0) {
+                    learnedEvents++;
+                }
+
+                learnAllJob = null;
+                learnAllProgress = -1;
+            } else {
+                learnAllProgress = learnAllJob.getProgress();
+            }
+        }
+
         super.broadcastChanges();
 
         if (isServerSide()) {
@@ -176,6 +265,16 @@ public class TransmutationTerminalMenu extends MEStorageMenu {
         }
     }
 
+    @Override
+    public void removed(Player player) {
+        super.removed(player);
+
+        if (learnAllJob != null) {
+            learnAllJob.finish();
+            learnAllJob = null;
+        }
+    }
+
     @Override
     public TransmutationTerminalHost getHost() {
         return host;
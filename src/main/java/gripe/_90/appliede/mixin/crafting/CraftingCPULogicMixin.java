@@ -16,6 +16,9 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import net.minecraft.world.level.Level;
 
 import appeng.api.crafting.IPatternDetails;
+import appeng.api.networking.IGrid;
+import appeng.api.networking.crafting.ICraftingPlan;
+import appeng.api.networking.crafting.ICraftingSubmitResult;
 import appeng.api.networking.energy.IEnergyService;
 import appeng.crafting.execution.CraftingCpuLogic;
 import appeng.me.cluster.implementations.CraftingCPUCluster;
@@ -30,6 +33,21 @@ public abstract class CraftingCPULogicMixin {
     @Final
     CraftingCPUCluster cluster;
 
+    @Inject(method = "trySubmitJob", at = @At("RETURN"))
+    private void holdOnSubmit(
+            CallbackInfoReturnable<ICraftingSubmitResult> cir,
+            @Local(argsOnly = true) IGrid grid,
+            @Local(argsOnly = true) ICraftingPlan plan) {
+        // the job holds each of its patterns once until that task finishes, separately from its calculation
+        if (cir.getReturnValue().successful()) {
+            for (var pattern : plan.patternTimes().keySet()) {
+                if (pattern instanceof TransmutationPattern transmutation) {
+                    grid.getService(KnowledgeService.class).addTemporaryPattern(transmutation);
+                }
+            }
+        }
+    }
+
     @Inject(method = "executeCrafting", at = @At(value = "INVOKE", target = "Ljava/util/Iterator;remove()V"))
     private void removeOnFinishStep(
             int maxPatterns,
@@ -50,11 +68,11 @@ public abstract class CraftingCPULogicMixin {
 
     @Unique
     private void appliede$removeTemporaryPattern(IPatternDetails pattern) {
-        if (pattern instanceof TransmutationPattern) {
+        if (pattern instanceof TransmutationPattern transmutation) {
             var grid = cluster.getGrid();
 
             if (grid != null) {
-                grid.getService(KnowledgeService.class).removeTemporaryPattern(pattern);
+                grid.getService(KnowledgeService.class).removeTemporaryPattern(transmutation);
             }
         }
     }
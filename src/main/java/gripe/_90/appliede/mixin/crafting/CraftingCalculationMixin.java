@@ -0,0 +1,61 @@
+package gripe._90.appliede.mixin.crafting;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.llamalad7.mixinextras.sugar.Local;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import appeng.api.networking.IGrid;
+import appeng.crafting.CraftingCalculation;
+import appeng.crafting.inv.NetworkCraftingSimulationState;
+
+import gripe._90.appliede.me.misc.TemporaryPatternHolder;
+import gripe._90.appliede.me.misc.TransmutableSimulationState;
+import gripe._90.appliede.me.misc.TransmutationPattern;
+import gripe._90.appliede.me.service.KnowledgeService;
+
+@Mixin(CraftingCalculation.class)
+public abstract class CraftingCalculationMixin implements TemporaryPatternHolder {
+    @Shadow
+    @Final
+    private NetworkCraftingSimulationState networkInv;
+
+    @Unique
+    private final Set<TransmutationPattern> appliede$temporaryPatterns = new HashSet<>();
+
+    @Unique
+    private KnowledgeService appliede$knowledge;
+
+    @Inject(method = "<init>", at = @At("RETURN"))
+    private void snapshotKnowledge(CallbackInfo ci, @Local(argsOnly = true) IGrid grid) {
+        // constructed on the server thread, whereas the calculation itself runs on AE2's crafting thread pool
+        appliede$knowledge = grid.getService(KnowledgeService.class);
+
+        if (appliede$knowledge.hasActiveModule()) {
+            ((TransmutableSimulationState) networkInv).appliede$setKnowledge(appliede$knowledge.getSnapshot());
+        }
+    }
+
+    @Override
+    public void appliede$holdTemporaryPattern(TransmutationPattern pattern) {
+        // however many tree nodes reach the same pattern, the calculation only holds it once
+        if (appliede$temporaryPatterns.add(pattern)) {
+            appliede$knowledge.addTemporaryPattern(pattern);
+        }
+    }
+
+    @Inject(method = "finish", at = @At("HEAD"))
+    private void releaseTemporaryPatterns(CallbackInfo ci) {
+        // reached whether the calculation succeeded, failed or was cancelled, and any submitted job holds its own
+        appliede$temporaryPatterns.forEach(appliede$knowledge::removeTemporaryPattern);
+        appliede$temporaryPatterns.clear();
+    }
+}
@@ -0,0 +1,49 @@
+package gripe._90.appliede.mixin.crafting;
+
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import com.llamalad7.mixinextras.sugar.Local;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.IGrid;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.api.storage.MEStorage;
+import appeng.crafting.execution.CraftingCpuHelper;
+
+import gripe._90.appliede.me.service.KnowledgeService;
+
+@Mixin(CraftingCpuHelper.class)
+public abstract class CraftingCpuHelperMixin {
+    // spotless:off
+    @WrapOperation(
+            method = "tryExtractInitialItems",
+            at = @At(
+                    value = "INVOKE",
+                    target = "Lappeng/api/storage/MEStorage;extract(Lappeng/api/stacks/AEKey;JLappeng/api/config/Actionable;Lappeng/api/networking/security/IActionSource;)J"))
+    // spotless:on
+    private static long extractTransmutable(
+            MEStorage storage,
+            AEKey what,
+            long amount,
+            Actionable mode,
+            IActionSource source,
+            Operation<Long> original,
+            @Local(argsOnly = true) IGrid grid) {
+        long extracted = original.call(storage, what, amount, mode, source);
+
+        if (extracted < amount && what instanceof AEItemKey item) {
+            var knowledge = grid.getService(KnowledgeService.class);
+
+            if (knowledge.hasActiveModule()) {
+                extracted += knowledge.getStorage().extractCraftingItem(item, amount - extracted, mode);
+            }
+        }
+
+        return extracted;
+    }
+}
@@ -0,0 +1,31 @@
+package gripe._90.appliede.mixin.crafting;
+
+import java.math.BigInteger;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import appeng.api.stacks.AEKey;
+import appeng.crafting.inv.CraftingSimulationState;
+
+import gripe._90.appliede.me.key.EMCKey;
+import gripe._90.appliede.me.key.EMCKeyType;
+
+@Mixin(CraftingSimulationState.class)
+public abstract class CraftingSimulationStateMixin {
+    @Shadow
+    public abstract void addBytes(double bytes);
+
+    @Inject(method = "addStackBytes", at = @At("HEAD"), cancellable = true)
+    private void addNormalisedEmcBytes(AEKey key, long amount, long multiplier, CallbackInfo ci) {
+        if (key instanceof EMCKey) {
+            // normalise the whole amount at once, as rounding a single unit first would inflate small inputs
+            addBytes(EMCKeyType.TYPE.getNormalisedBytes(
+                    BigInteger.valueOf(amount).multiply(BigInteger.valueOf(multiplier))));
+            ci.cancel();
+        }
+    }
+}
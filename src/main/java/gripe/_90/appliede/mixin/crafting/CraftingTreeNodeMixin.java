@@ -22,6 +22,7 @@ import appeng.crafting.CraftingTreeNode;
 import appeng.crafting.CraftingTreeProcess;
 import appeng.crafting.inv.CraftingSimulationState;
 
+import gripe._90.appliede.me.misc.TemporaryPatternHolder;
 import gripe._90.appliede.me.misc.TransmutationPattern;
 import gripe._90.appliede.me.service.KnowledgeService;
 
@@ -56,14 +57,14 @@ public abstract class CraftingTreeNodeMixin {
             @Local IPatternDetails details,
             @Local IGridNode gridNode,
             @Local ICraftingService craftingService) {
-        if (details instanceof TransmutationPattern) {
-            if (details.getOutputs().getFirst().what() instanceof AEItemKey item) {
-                ci.cancel();
-                details = new TransmutationPattern(item, appliede$requestedAmount);
-                nodes.add(new CraftingTreeProcess(craftingService, job, details, (CraftingTreeNode) (Object) this));
-            }
+        if (details instanceof TransmutationPattern
+                && details.getOutputs().getFirst().what() instanceof AEItemKey item) {
+            var knowledge = gridNode.getGrid().getService(KnowledgeService.class);
+            var pattern = knowledge.getTemporaryPattern(item, appliede$requestedAmount);
 
-            gridNode.getGrid().getService(KnowledgeService.class).addTemporaryPattern(details);
+            ci.cancel();
+            nodes.add(new CraftingTreeProcess(craftingService, job, pattern, (CraftingTreeNode) (Object) this));
+            ((TemporaryPatternHolder) job).appliede$holdTemporaryPattern(pattern);
         }
     }
 }
@@ -0,0 +1,80 @@
+package gripe._90.appliede.mixin.crafting;
+
+import java.math.BigInteger;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.crafting.inv.NetworkCraftingSimulationState;
+
+import gripe._90.appliede.AppliedE;
+import gripe._90.appliede.me.key.EMCKey;
+import gripe._90.appliede.me.misc.TransmutableSimulationState;
+import gripe._90.appliede.me.service.KnowledgeSnapshot;
+
+@Mixin(NetworkCraftingSimulationState.class)
+public abstract class NetworkCraftingSimulationStateMixin implements TransmutableSimulationState {
+    @Unique
+    private final Object2LongMap<AEKey> appliede$granted = new Object2LongOpenHashMap<>();
+
+    @Unique
+    private KnowledgeSnapshot appliede$snapshot;
+
+    @Unique
+    private BigInteger appliede$remainingEmc = BigInteger.ZERO;
+
+    @Override
+    public void appliede$setKnowledge(KnowledgeSnapshot snapshot) {
+        appliede$snapshot = snapshot;
+        appliede$remainingEmc = snapshot.availableEmc();
+        appliede$granted.clear();
+    }
+
+    @Inject(method = "simulateExtractParent", at = @At("RETURN"), cancellable = true)
+    private void addTransmutableStock(AEKey what, long amount, CallbackInfoReturnable<Long> cir) {
+        if (appliede$snapshot == null) {
+            return;
+        }
+
+        var stored = cir.getReturnValueJ();
+
+        if (what instanceof AEItemKey item && stored < amount && appliede$snapshot.isKnown(item)) {
+            var itemEmc = appliede$snapshot.getItemEmc(item);
+
+            if (itemEmc > 0) {
+                cir.setReturnValue(stored + appliede$reserve(item, amount - stored, BigInteger.valueOf(itemEmc)));
+            }
+        } else if (what instanceof EMCKey emc) {
+            // EMC handed to transmuted items above is no longer there to feed transmutation patterns, and vice versa
+            cir.setReturnValue(appliede$reserve(emc, stored, AppliedE.TIER_LIMIT.pow(emc.getTier() - 1)));
+        }
+    }
+
+    @Unique
+    private long appliede$reserve(AEKey what, long wanted, BigInteger unitEmc) {
+        // every key draws from the same pool of EMC, so whatever one key is granted is taken away from all others
+        var granted = appliede$granted.getLong(what);
+        var affordable = appliede$remainingEmc
+                .divide(unitEmc)
+                .add(BigInteger.valueOf(granted))
+                .min(BigInteger.valueOf(Long.MAX_VALUE))
+                .longValue();
+        var grant = Math.min(wanted, affordable);
+
+        if (grant > granted) {
+            var debit = unitEmc.multiply(BigInteger.valueOf(grant - granted));
+            appliede$remainingEmc = appliede$remainingEmc.subtract(debit);
+            appliede$granted.put(what, grant);
+        }
+
+        return grant;
+    }
+}
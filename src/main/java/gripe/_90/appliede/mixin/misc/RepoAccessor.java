@@ -0,0 +1,13 @@
+package gripe._90.appliede.mixin.misc;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import appeng.client.gui.me.common.Repo;
+import appeng.client.gui.me.search.RepoSearch;
+
+@Mixin(Repo.class)
+public interface RepoAccessor {
+    @Accessor
+    RepoSearch getSearch();
+}
@@ -0,0 +1,39 @@
+package gripe._90.appliede.mixin.misc;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import appeng.client.gui.me.search.RepoSearch;
+import appeng.menu.me.common.GridInventoryEntry;
+
+import gripe._90.appliede.client.IndexedRepoSearch;
+import gripe._90.appliede.client.KnownItemSearchIndex;
+
+@Mixin(RepoSearch.class)
+public abstract class RepoSearchMixin implements IndexedRepoSearch {
+    @Unique
+    private KnownItemSearchIndex appliede$index;
+
+    @Override
+    public void appliede$setIndex(KnownItemSearchIndex index) {
+        appliede$index = index;
+    }
+
+    @Inject(method = "setSearchString", at = @At("HEAD"))
+    private void updateIndexedSearch(String searchString, CallbackInfo ci) {
+        if (appliede$index != null) {
+            appliede$index.setSearch(searchString);
+        }
+    }
+
+    @Inject(method = "matches", at = @At("HEAD"), cancellable = true)
+    private void skipIndexMisses(GridInventoryEntry entry, CallbackInfoReturnable<Boolean> cir) {
+        if (appliede$index != null && !appliede$index.mayMatch(entry.getWhat())) {
+            cir.setReturnValue(false);
+        }
+    }
+}
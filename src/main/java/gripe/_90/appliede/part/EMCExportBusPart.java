@@ -1,23 +1,16 @@
 package gripe._90.appliede.part;
 
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import net.minecraft.core.Direction;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.inventory.MenuType;
-import net.neoforged.neoforge.capabilities.BlockCapabilityCache;
-import net.neoforged.neoforge.capabilities.Capabilities;
 import net.neoforged.neoforge.items.IItemHandler;
 import net.neoforged.neoforge.items.ItemHandlerHelper;
 
 import appeng.api.config.Actionable;
+import appeng.api.config.PowerMultiplier;
 import appeng.api.config.SchedulingMode;
 import appeng.api.config.Settings;
 import appeng.api.networking.IGrid;
@@ -25,24 +18,22 @@ import appeng.api.parts.IPartCollisionHelper;
 import appeng.api.parts.IPartItem;
 import appeng.api.parts.IPartModel;
 import appeng.api.stacks.AEItemKey;
-import appeng.api.stacks.AEKeyType;
-import appeng.api.storage.StorageHelper;
 import appeng.api.util.IConfigManagerBuilder;
 import appeng.core.AppEng;
+import appeng.core.definitions.AEItems;
 import appeng.core.settings.TickRates;
 import appeng.items.parts.PartModels;
 import appeng.parts.PartModel;
-import appeng.parts.automation.IOBusPart;
 
 import gripe._90.appliede.AppliedE;
 import gripe._90.appliede.me.key.EMCKey;
 import gripe._90.appliede.me.key.EMCKeyType;
+import gripe._90.appliede.me.service.EMCStorage;
 import gripe._90.appliede.me.service.KnowledgeService;
 
-import moze_intel.projecte.api.capabilities.PECapabilities;
 import moze_intel.projecte.api.capabilities.block_entity.IEmcStorage;
 
-public class EMCExportBusPart extends IOBusPart {
+public class EMCExportBusPart extends EMCIOBusPart {
     private static final ResourceLocation MODEL_BASE = AppliedE.id("part/emc_export_bus");
 
     @PartModels
@@ -55,21 +46,10 @@ public class EMCExportBusPart extends IOBusPart {
     private static final PartModel MODELS_HAS_CHANNEL =
             new PartModel(MODEL_BASE, AppEng.makeId("part/export_bus_has_channel"));
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(EMCExportBusPart.class);
-
-    private final BlockCapabilityCache<IItemHandler, Direction> itemCache;
-    private final BlockCapabilityCache<IEmcStorage, Direction> emcCache;
-
     private int nextSlot = 0;
 
     public EMCExportBusPart(IPartItem<?> partItem) {
-        super(TickRates.ExportBus, Set.of(AEKeyType.items(), EMCKeyType.TYPE), partItem);
-
-        var adjacentPos = getHost().getBlockEntity().getBlockPos().relative(getSide());
-        var facing = getSide().getOpposite();
-        var level = (ServerLevel) getLevel();
-        itemCache = BlockCapabilityCache.create(Capabilities.ItemHandler.BLOCK, level, adjacentPos, facing);
-        emcCache = BlockCapabilityCache.create(PECapabilities.EMC_STORAGE_CAPABILITY, level, adjacentPos, facing);
+        super(TickRates.ExportBus, partItem);
     }
 
     @Override
@@ -93,10 +73,20 @@ public class EMCExportBusPart extends IOBusPart {
     @Override
     protected boolean doBusWork(IGrid grid) {
         var doneWork = false;
+        var knowledge = grid.getService(KnowledgeService.class).resolve();
 
-        var networkEmc = grid.getService(KnowledgeService.class).getStorage();
+        // everything exported here is drawn straight out of the module's storage, so respect its power and channel
+        if (!knowledge.hasActiveModule()) {
+            return false;
+        }
+
+        var networkEmc = knowledge.getStorage();
         var schedulingMode = getConfigManager().getSetting(Settings.SCHEDULING_MODE);
-        var remaining = new AtomicInteger(getOperationsPerTick());
+        var budget = getOperationsBudget();
+        var remaining = new AtomicInteger(budget);
+        var emcRemaining = getEmcPerTick();
+        // only a full item inventory can be left alone, as EMC storage drains without notifying its neighbours
+        var neighbourIdle = true;
         var slot = 0;
 
         for (slot = 0; slot < availableSlots() && remaining.get() > 0; slot++) {
@@ -109,45 +99,23 @@ public class EMCExportBusPart extends IOBusPart {
             var what = getConfig().getKey(startingSlot);
 
             if (what == EMCKey.BASE && emcCache.getCapability() instanceof IEmcStorage handler) {
-                var rem = remaining.get() * EMCKeyType.TYPE.getAmountPerOperation();
-                var insertable = handler.insertEmc(rem, IEmcStorage.EmcAction.SIMULATE);
-                var extracted = StorageHelper.poweredExtraction(
-                        grid.getEnergyService(),
-                        grid.getStorageService().getInventory(),
-                        EMCKey.BASE,
-                        insertable,
-                        source,
-                        Actionable.MODULATE);
-
-                if (extracted > 0) {
-                    handler.insertEmc(extracted, IEmcStorage.EmcAction.EXECUTE);
-                    remaining.addAndGet((int) -Math.max(1, extracted / EMCKeyType.TYPE.getAmountPerOperation()));
+                neighbourIdle = false;
+                var pushed = pushEmc(grid, networkEmc, handler, emcRemaining);
+
+                if (pushed > 0) {
+                    emcRemaining -= pushed;
+                    remaining.decrementAndGet();
                 }
             } else if (what instanceof AEItemKey item && itemCache.getCapability() instanceof IItemHandler handler) {
                 var rem = remaining.get();
-                var stack = item.toStack(rem);
-                var extracted = networkEmc.extractItem(item, rem, Actionable.SIMULATE, source, true);
-                var remainder = ItemHandlerHelper.insertItem(handler, stack, true);
-                var wasInserted = extracted - remainder.getCount();
-
-                if (wasInserted > 0) {
-                    extracted = networkEmc.extractItem(item, rem, Actionable.MODULATE, source, true);
-                    remainder = ItemHandlerHelper.insertItem(handler, stack, false);
-                    wasInserted = extracted - remainder.getCount();
-
-                    if (wasInserted < extracted) {
-                        var leftover = extracted - wasInserted;
-                        leftover -= networkEmc.insertItem(
-                                item, leftover, Actionable.MODULATE, source, false, false, () -> {});
-
-                        if (leftover > 0) {
-                            LOGGER.error(
-                                    "Storage export: adjacent block unexpectedly refused insert, voided {}x{}",
-                                    leftover,
-                                    item);
-                        }
-                    }
-                }
+                var capacity = rem - ItemHandlerHelper.insertItem(handler, item.toStack(rem), true).getCount();
+                neighbourIdle &= capacity <= 0;
+                var wasInserted = capacity > 0
+                        ? networkEmc.exportItem(item, capacity, source, extracted -> {
+                            var remainder = ItemHandlerHelper.insertItem(handler, item.toStack((int) extracted), false);
+                            return extracted - remainder.getCount();
+                        })
+                        : 0;
 
                 if (wasInserted > 0) {
                     remaining.addAndGet(-(int) wasInserted);
@@ -155,17 +123,73 @@ public class EMCExportBusPart extends IOBusPart {
             }
         }
 
-        if (remaining.get() < getOperationsPerTick()) {
+        if (remaining.get() <= 0) {
+            reportBacklog();
+        }
+
+        if (remaining.get() < budget) {
             if (schedulingMode == SchedulingMode.ROUNDROBIN) {
                 nextSlot = (nextSlot + slot) % availableSlots();
             }
 
             doneWork = true;
+        } else if (neighbourIdle) {
+            waitForNeighbour();
         }
 
         return doneWork;
     }
 
+    private long pushEmc(IGrid grid, EMCStorage networkEmc, IEmcStorage handler, long limit) {
+        var insertable = handler.insertEmc(limit, IEmcStorage.EmcAction.SIMULATE);
+
+        if (insertable <= 0) {
+            return 0;
+        }
+
+        var energy = grid.getEnergyService();
+        var perOperation = EMCKeyType.TYPE.getAmountPerOperation();
+        var power = (double) insertable / perOperation;
+        var available = energy.extractAEPower(power, Actionable.SIMULATE, PowerMultiplier.CONFIG);
+        var affordable = Math.min(insertable, (long) (available * perOperation));
+
+        // the module's storage holds the raw EMC total, so a single extraction can span any number of tiers
+        var extracted = networkEmc.extract(EMCKey.BASE, affordable, Actionable.MODULATE, source);
+
+        if (extracted <= 0) {
+            return 0;
+        }
+
+        var inserted = Math.clamp(handler.insertEmc(extracted, IEmcStorage.EmcAction.EXECUTE), 0, extracted);
+
+        if (inserted < extracted) {
+            networkEmc.insert(EMCKey.BASE, extracted - inserted, Actionable.MODULATE, source);
+        }
+
+        if (inserted > 0) {
+            energy.extractAEPower((double) inserted / perOperation, Actionable.MODULATE, PowerMultiplier.CONFIG);
+        }
+
+        return inserted;
+    }
+
+    private long getEmcPerTick() {
+        var cards = getInstalledUpgrades(AEItems.SPEED_CARD);
+
+        if (cards == 0) {
+            return (long) getOperationsBudget() * EMCKeyType.TYPE.getAmountPerOperation();
+        }
+
+        // each acceleration card raises the cap by four orders of magnitude, up to a full long with all four
+        var limit = (long) EMCKeyType.TYPE.getAmountPerOperation();
+
+        for (var i = 0; i < cards * 4; i++) {
+            limit = limit > Long.MAX_VALUE / 10 ? Long.MAX_VALUE : limit * 10;
+        }
+
+        return limit;
+    }
+
     @Override
     protected MenuType<?> getMenuType() {
         return AppliedE.EMC_EXPORT_BUS_MENU.get();
@@ -0,0 +1,121 @@
+package gripe._90.appliede.part;
+
+import java.util.Set;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.BlockGetter;
+import net.neoforged.neoforge.capabilities.BlockCapabilityCache;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.items.IItemHandler;
+
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.ticking.TickRateModulation;
+import appeng.api.parts.IPartItem;
+import appeng.api.stacks.AEKeyType;
+import appeng.core.settings.TickRates;
+import appeng.parts.automation.IOBusPart;
+
+import gripe._90.appliede.AppliedEConfig;
+import gripe._90.appliede.me.key.EMCKeyType;
+
+import moze_intel.projecte.api.capabilities.PECapabilities;
+import moze_intel.projecte.api.capabilities.block_entity.IEmcStorage;
+
+public abstract class EMCIOBusPart extends IOBusPart {
+    protected final BlockCapabilityCache<IItemHandler, Direction> itemCache;
+    protected final BlockCapabilityCache<IEmcStorage, Direction> emcCache;
+
+    private boolean removed;
+    private boolean waitingForNeighbour;
+    private boolean idlingOnNeighbour;
+    private boolean backlogged;
+    private int overclock = 1;
+
+    protected EMCIOBusPart(TickRates tickRates, IPartItem<?> partItem) {
+        super(tickRates, Set.of(AEKeyType.items(), EMCKeyType.TYPE), partItem);
+
+        var adjacentPos = getHost().getBlockEntity().getBlockPos().relative(getSide());
+        var facing = getSide().getOpposite();
+        var level = (ServerLevel) getLevel();
+        itemCache = BlockCapabilityCache.create(
+                Capabilities.ItemHandler.BLOCK, level, adjacentPos, facing, () -> !removed, this::wakeForNeighbour);
+        emcCache = BlockCapabilityCache.create(
+                PECapabilities.EMC_STORAGE_CAPABILITY,
+                level,
+                adjacentPos,
+                facing,
+                () -> !removed,
+                this::wakeForNeighbour);
+    }
+
+    protected void waitForNeighbour() {
+        // the current operation was held up only by the adjacent block, so back off until that block changes
+        waitingForNeighbour = true;
+    }
+
+    protected void reportBacklog() {
+        // the current operation ran out of budget with work still left to do
+        backlogged = true;
+    }
+
+    protected int getOperationsBudget() {
+        return (int) Math.min((long) getOperationsPerTick() * overclock, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public TickRateModulation tickingRequest(IGridNode node, int ticksSinceLastCall) {
+        waitingForNeighbour = false;
+        backlogged = false;
+        var rate = super.tickingRequest(node, ticksSinceLastCall);
+
+        // inventories generally don't tell their neighbours when their contents change, so rather than sleeping, drop
+        // straight to the slowest tick rate to keep re-checking, and only speed back up early on a neighbour update
+        if (rate == TickRateModulation.SLOWER && waitingForNeighbour) {
+            idlingOnNeighbour = true;
+            overclock = 1;
+            return TickRateModulation.IDLE;
+        }
+
+        idlingOnNeighbour = false;
+        var limit = AppliedEConfig.CONFIG.getBusOverclockLimit();
+
+        if (backlogged && limit > 1) {
+            overclock = Math.min(overclock * 2, limit);
+            return TickRateModulation.URGENT;
+        }
+
+        overclock = Math.max(1, Math.min(overclock / 2, limit));
+        return rate;
+    }
+
+    @Override
+    public void onNeighborChanged(BlockGetter level, BlockPos pos, BlockPos neighbor) {
+        super.onNeighborChanged(level, pos, neighbor);
+
+        if (neighbor.equals(pos.relative(getSide()))) {
+            wakeForNeighbour();
+        }
+    }
+
+    @Override
+    public void addToWorld() {
+        super.addToWorld();
+        removed = false;
+    }
+
+    @Override
+    public void removeFromWorld() {
+        super.removeFromWorld();
+        removed = true;
+    }
+
+    private void wakeForNeighbour() {
+        // only undo our own back-off, so as not to wake a bus which is being held off by redstone
+        if (idlingOnNeighbour) {
+            idlingOnNeighbour = false;
+            getMainNode().ifPresent((grid, node) -> grid.getTickManager().alertDevice(node));
+        }
+    }
+}
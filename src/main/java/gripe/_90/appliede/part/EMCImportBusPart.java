@@ -3,12 +3,11 @@ package gripe._90.appliede.part;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import net.minecraft.core.Direction;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.inventory.MenuType;
-import net.neoforged.neoforge.capabilities.BlockCapabilityCache;
-import net.neoforged.neoforge.capabilities.Capabilities;
+import net.minecraft.world.item.ItemStack;
 import net.neoforged.neoforge.items.IItemHandler;
 
 import appeng.api.config.Actionable;
@@ -17,26 +16,27 @@ import appeng.api.parts.IPartCollisionHelper;
 import appeng.api.parts.IPartItem;
 import appeng.api.parts.IPartModel;
 import appeng.api.stacks.AEItemKey;
-import appeng.api.stacks.AEKeyType;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
 import appeng.api.storage.StorageHelper;
+import appeng.api.util.prioritylist.IPartitionList;
 import appeng.core.AppEng;
 import appeng.core.definitions.AEItems;
 import appeng.core.settings.TickRates;
 import appeng.items.parts.PartModels;
 import appeng.me.storage.ExternalStorageFacade;
 import appeng.parts.PartModel;
-import appeng.parts.automation.IOBusPart;
 
 import gripe._90.appliede.AppliedE;
 import gripe._90.appliede.me.key.EMCKey;
 import gripe._90.appliede.me.key.EMCKeyType;
 import gripe._90.appliede.me.service.KnowledgeService;
 
-import moze_intel.projecte.api.capabilities.PECapabilities;
 import moze_intel.projecte.api.capabilities.block_entity.IEmcStorage;
 
-public class EMCImportBusPart extends IOBusPart {
+public class EMCImportBusPart extends EMCIOBusPart {
     private static final ResourceLocation MODEL_BASE = AppliedE.id("part/emc_import_bus");
+    private static final int SLOTS_PER_OPERATION = 4;
 
     @PartModels
     private static final PartModel MODELS_OFF = new PartModel(MODEL_BASE, AppEng.makeId("part/import_bus_off"));
@@ -48,17 +48,21 @@ public class EMCImportBusPart extends IOBusPart {
     private static final PartModel MODELS_HAS_CHANNEL =
             new PartModel(MODEL_BASE, AppEng.makeId("part/import_bus_has_channel"));
 
-    private final BlockCapabilityCache<IItemHandler, Direction> itemCache;
-    private final BlockCapabilityCache<IEmcStorage, Direction> emcCache;
+    private ImportFilter importFilter;
+    private IPartitionList importFilterSource;
 
-    public EMCImportBusPart(IPartItem<?> partItem) {
-        super(TickRates.ImportBus, Set.of(AEKeyType.items(), EMCKeyType.TYPE), partItem);
+    private final Set<AEKey> refusedItems = new ObjectOpenHashSet<>();
+    private KnowledgeService scannedKnowledge;
+    private int scannedKnowledgeVersion;
 
-        var adjacentPos = getHost().getBlockEntity().getBlockPos().relative(getSide());
-        var facing = getSide().getOpposite();
-        var level = (ServerLevel) getLevel();
-        itemCache = BlockCapabilityCache.create(Capabilities.ItemHandler.BLOCK, level, adjacentPos, facing);
-        emcCache = BlockCapabilityCache.create(PECapabilities.EMC_STORAGE_CAPABILITY, level, adjacentPos, facing);
+    private IItemHandler scannedHandler;
+    private ImportFilter scannedFilter;
+    private ItemStack[] skippedStacks = new ItemStack[0];
+    private int nextSlot;
+    private int idleSlots;
+
+    public EMCImportBusPart(IPartItem<?> partItem) {
+        super(TickRates.ImportBus, partItem);
     }
 
     @Override
@@ -70,11 +74,17 @@ public class EMCImportBusPart extends IOBusPart {
     protected boolean doBusWork(IGrid grid) {
         var doneWork = false;
 
-        var networkEmc = grid.getService(KnowledgeService.class).getStorage();
-        var remaining = new AtomicInteger(getOperationsPerTick());
+        var knowledge = grid.getService(KnowledgeService.class).resolve();
+        var networkEmc = knowledge.getStorage();
+        var filter = getImportFilter();
+        var budget = getOperationsBudget();
+        var remaining = new AtomicInteger(budget);
+        // only an unchanged item inventory can be left alone, as EMC storage fills up without notifying its neighbours
+        var neighbourIdle = true;
 
         if (emcCache.getCapability() instanceof IEmcStorage handler) {
-            if (getFilter().isEmpty() || getFilter().isListed(EMCKey.BASE) != isUpgradedWith(AEItems.INVERTER_CARD)) {
+            if (filter.matches(EMCKey.BASE)) {
+                neighbourIdle = false;
                 var emcRemaining = remaining.get() * EMCKeyType.TYPE.getAmountPerOperation();
                 var inserted = StorageHelper.poweredInsert(
                         grid.getEnergyService(),
@@ -88,38 +98,143 @@ public class EMCImportBusPart extends IOBusPart {
             }
         }
 
-        if (itemCache.getCapability() instanceof IItemHandler handler) {
+        // items are transmuted straight into the module's storage rather than through the grid inventory
+        if (knowledge.hasActiveModule() && itemCache.getCapability() instanceof IItemHandler handler) {
             var adjacentStorage = ExternalStorageFacade.of(handler);
+            var slots = handler.getSlots();
+            prepareScan(handler, slots, filter, knowledge);
+
+            var planned = new KeyCounter();
+            var startSlot = nextSlot;
+            // large inventories are worked through a few slots per operation, picking up where the last tick left off
+            var visits = (int) Math.min(slots, (long) budget * SLOTS_PER_OPERATION);
+
+            for (var scanned = 0; scanned < visits && remaining.get() > 0; scanned++) {
+                var slot = (startSlot + scanned) % slots;
+                var stack = handler.getStackInSlot(slot);
+                idleSlots = Math.min(idleSlots + 1, slots);
+
+                if (!isUnchanged(slot, stack)) {
+                    var item = AEItemKey.of(stack);
+                    var skip = item == null || !filter.matches(item);
+
+                    // the facade extracts across all slots, so each item only needs planning once
+                    if (!skip && planned.get(item) == 0) {
+                        if (!refusedItems.contains(item) && networkEmc.mayInsertItem(item, source, filter.mayLearn())) {
+                            var amount = adjacentStorage.extract(item, remaining.get(), Actionable.SIMULATE, source);
+
+                            if (amount > 0) {
+                                planned.add(item, amount);
+                                remaining.addAndGet(-(int) amount);
+                            } else {
+                                skip = true;
+                            }
+                        } else {
+                            // refused until the knowledge version changes, which clears both this and the slot memo
+                            refusedItems.add(item);
+                            skip = true;
+                        }
+                    }
+
+                    // only remember slots which could not have been imported from, so they can be passed over
+                    // until their contents change
+                    skippedStacks[slot] = skip ? stack.copy() : null;
+
+                    if (!skip) {
+                        idleSlots = 0;
+                    }
+                }
 
-            for (var slot = 0; slot < handler.getSlots() && remaining.get() > 0; slot++) {
-                var item = AEItemKey.of(handler.getStackInSlot(slot));
+                // resume from a slot which still had items left once this operation's budget ran out
+                nextSlot = remaining.get() > 0 ? (slot + 1) % slots : slot;
+            }
 
-                if (item == null) {
-                    continue;
-                }
+            // the inventory only counts as idle once a full lap over its slots has turned up nothing to import
+            if (idleSlots < slots) {
+                neighbourIdle = false;
+            }
 
-                if (!getFilter().isEmpty() && getFilter().isListed(item) == isUpgradedWith(AEItems.INVERTER_CARD)) {
-                    continue;
-                }
+            if (!planned.isEmpty()) {
+                neighbourIdle = false;
+                var inserted = networkEmc.insertItems(planned, source, filter.mayLearn());
+
+                for (var entry : planned) {
+                    var amount = inserted.get(entry.getKey());
 
-                var amount = adjacentStorage.extract(item, remaining.get(), Actionable.SIMULATE, source);
+                    if (amount > 0) {
+                        adjacentStorage.extract(entry.getKey(), amount, Actionable.MODULATE, source);
+                    }
 
-                if (amount > 0) {
-                    var mayLearn = isUpgradedWith(AppliedE.LEARNING_CARD.get());
-                    amount = networkEmc.insertItem(item, amount, Actionable.MODULATE, source, mayLearn);
-                    adjacentStorage.extract(item, amount, Actionable.MODULATE, source);
-                    remaining.addAndGet(-(int) amount);
+                    remaining.addAndGet((int) (entry.getLongValue() - amount));
                 }
             }
         }
 
-        if (remaining.get() < getOperationsPerTick()) {
+        if (remaining.get() <= 0) {
+            reportBacklog();
+        }
+
+        if (remaining.get() < budget) {
             doneWork = true;
+        } else if (neighbourIdle) {
+            waitForNeighbour();
         }
 
         return doneWork;
     }
 
+    private ImportFilter getImportFilter() {
+        var source = getFilter();
+        var slots = availableSlots();
+        var inverted = isUpgradedWith(AEItems.INVERTER_CARD);
+        var mayLearn = isUpgradedWith(AppliedE.LEARNING_CARD.get());
+
+        if (importFilter == null
+                || source != importFilterSource
+                || slots != importFilter.slots()
+                || inverted != importFilter.inverted()
+                || mayLearn != importFilter.mayLearn()) {
+            var keys = new ObjectOpenHashSet<AEKey>();
+
+            for (var slot = 0; slot < slots; slot++) {
+                var key = getConfig().getKey(slot);
+
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+
+            importFilter = new ImportFilter(keys, slots, inverted, mayLearn);
+            importFilterSource = source;
+        }
+
+        return importFilter;
+    }
+
+    private void prepareScan(IItemHandler handler, int slots, ImportFilter filter, KnowledgeService knowledge) {
+        if (knowledge != scannedKnowledge || knowledge.getKnowledgeVersion() != scannedKnowledgeVersion) {
+            scannedKnowledge = knowledge;
+            scannedKnowledgeVersion = knowledge.getKnowledgeVersion();
+            refusedItems.clear();
+            scannedHandler = null;
+        }
+
+        if (handler != scannedHandler || filter != scannedFilter || skippedStacks.length != slots) {
+            scannedHandler = handler;
+            scannedFilter = filter;
+            skippedStacks = new ItemStack[slots];
+            nextSlot = 0;
+            idleSlots = 0;
+        }
+    }
+
+    private boolean isUnchanged(int slot, ItemStack stack) {
+        var skipped = skippedStacks[slot];
+        return skipped != null
+                && skipped.getCount() == stack.getCount()
+                && ItemStack.isSameItemSameComponents(skipped, stack);
+    }
+
     @Override
     public void getBoxes(IPartCollisionHelper bch) {
         bch.addBox(6, 6, 11, 10, 10, 13);
@@ -131,4 +246,10 @@ public class EMCImportBusPart extends IOBusPart {
     public IPartModel getStaticModels() {
         return isActive() ? MODELS_HAS_CHANNEL : isPowered() ? MODELS_ON : MODELS_OFF;
     }
+
+    private record ImportFilter(Set<AEKey> keys, int slots, boolean inverted, boolean mayLearn) {
+        private boolean matches(AEKey key) {
+            return keys.isEmpty() || keys.contains(key) != inverted;
+        }
+    }
 }
@@ -2,14 +2,19 @@ package gripe._90.appliede.part;
 
 import java.util.List;
 
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.phys.Vec3;
 
 import appeng.api.networking.GridHelper;
+import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridNodeListener;
 import appeng.api.networking.IManagedGridNode;
 import appeng.api.parts.IPartCollisionHelper;
@@ -66,6 +71,34 @@ public class EMCInterfacePart extends AEBasePart implements EMCInterfaceLogicHos
         if (getMainNode().hasGridBooted()) {
             logic.notifyNeighbours();
         }
+
+        logic.onBridgeChanged();
+    }
+
+    @Override
+    public void onNeighborChanged(BlockGetter level, BlockPos pos, BlockPos neighbor) {
+        super.onNeighborChanged(level, pos, neighbor);
+
+        if (neighbor.equals(pos.relative(getSide()))) {
+            logic.onBridgeChanged();
+        }
+    }
+
+    @Override
+    public boolean canBridge() {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public IGridNode getBridgedNode() {
+        // cable bus parts don't connect to whatever they face, so the block in front can belong to another grid
+        var level = getLevel();
+        var adjacentPos = getBlockEntity().getBlockPos().relative(getSide());
+
+        return level != null && level.isLoaded(adjacentPos)
+                ? GridHelper.getExposedNode(level, adjacentPos, getSide().getOpposite())
+                : null;
     }
 
     @Override
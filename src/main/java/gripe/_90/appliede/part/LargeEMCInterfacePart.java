@@ -0,0 +1,24 @@
+package gripe._90.appliede.part;
+
+import net.minecraft.world.inventory.MenuType;
+
+import appeng.api.parts.IPartItem;
+
+import gripe._90.appliede.AppliedE;
+import gripe._90.appliede.me.misc.EMCInterfaceLogic;
+
+public class LargeEMCInterfacePart extends EMCInterfacePart {
+    public LargeEMCInterfacePart(IPartItem<?> partItem) {
+        super(partItem);
+    }
+
+    @Override
+    protected EMCInterfaceLogic createLogic() {
+        return new EMCInterfaceLogic(getMainNode(), this, getPartItem().asItem(), EMCInterfaceLogic.LARGE_SLOTS);
+    }
+
+    @Override
+    public MenuType<?> getMenuType() {
+        return AppliedE.LARGE_EMC_INTERFACE_MENU.get();
+    }
+}